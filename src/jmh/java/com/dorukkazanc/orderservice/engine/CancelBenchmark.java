@@ -0,0 +1,56 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Market-maker style churn: cancel an order from the middle of a deep level and post it again at the back.
+ * The time per operation should not change with the depth of the level or the size of the book.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CancelBenchmark {
+    private static final long PRICE_TICKS = 100L;
+
+    @Param({"1000", "100000"})
+    private int depth;
+
+    private OrderBook orderBook;
+    private BookOrder[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        orderBook = new OrderBook("AAPL");
+        orders = new BookOrder[depth];
+        for (int i = 0; i < depth; i++) {
+            orders[i] = new BookOrder(i + 1_000_000L, i, OrderSide.SELL, PRICE_TICKS, 10L);
+            orderBook.add(orders[i]);
+        }
+    }
+
+    @Benchmark
+    public BookOrder cancelAndRepost() {
+        BookOrder order = orders[next];
+        next = (next + 7_919) % depth;
+        BookOrder removed = orderBook.remove(order.getOrderId());
+        orderBook.add(order);
+        return removed;
+    }
+}
@@ -0,0 +1,110 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order entry under contention: every thread places orders for a customer of its own, reserving against that
+ * customer's balance inside the customer's critical section. With the striped lock throughput should grow with
+ * the thread count; the single global lock is the baseline that stays flat.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerLockBenchmark {
+    private static final int CUSTOMERS = 1024;
+    private static final long WORK_TOKENS = 200L;
+
+    @State(Scope.Benchmark)
+    public static class Locks {
+        private final StripedLock stripedLock = new StripedLock(256);
+        private final ReentrantLock globalLock = new ReentrantLock();
+        private final Balance[] balances = new Balance[CUSTOMERS];
+        private final AtomicInteger nextCustomer = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < CUSTOMERS; i++) {
+                balances[i] = new Balance(i, i, "TRY", Long.MAX_VALUE / 2, Long.MAX_VALUE / 2, null);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Customer {
+        private long customerId;
+        private Balance balance;
+
+        @Setup
+        public void setUp(Locks locks) {
+            int index = locks.nextCustomer.getAndIncrement() % CUSTOMERS;
+            customerId = index;
+            balance = locks.balances[index];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean striped1(Locks locks, Customer customer) {
+        return enter(locks.stripedLock.forKey(customer.customerId), customer.balance);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean striped2(Locks locks, Customer customer) {
+        return enter(locks.stripedLock.forKey(customer.customerId), customer.balance);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean striped4(Locks locks, Customer customer) {
+        return enter(locks.stripedLock.forKey(customer.customerId), customer.balance);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean striped8(Locks locks, Customer customer) {
+        return enter(locks.stripedLock.forKey(customer.customerId), customer.balance);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean global1(Locks locks, Customer customer) {
+        return enter(locks.globalLock, customer.balance);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean global8(Locks locks, Customer customer) {
+        return enter(locks.globalLock, customer.balance);
+    }
+
+    private static boolean enter(ReentrantLock lock, Balance balance) {
+        lock.lock();
+        try {
+            // Stands in for the check and insert done while the customer is locked
+            Blackhole.consumeCPU(WORK_TOKENS);
+            boolean reserved = balance.reserve(1L);
+            balance.apply(0L, 1L);
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
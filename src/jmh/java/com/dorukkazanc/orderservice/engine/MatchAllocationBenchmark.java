@@ -0,0 +1,79 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of the match loop, read from the {@code gc.alloc.rate.norm} column of the GC profiler
+ * ({@code ./gradlew jmh}, the build enables {@code -prof gc}).
+ * <p>
+ * Every operation puts {@value #RESTING} one-lot asks back into the book and sweeps them with a single bid,
+ * producing {@value #RESTING} fills. {@link #refill()} does the same adds and removes the orders again
+ * without matching, so the difference between the two benchmarks is what matching costs and should be
+ * close to zero bytes per operation. Prices stay inside the {@code Long} cache so that boxing the level key
+ * when an order is added does not blur the result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchAllocationBenchmark {
+    private static final int RESTING = 64;
+    private static final long PRICE_TICKS = 100L;
+    private static final long AGGRESSOR_ID = 1L;
+    private static final long SENTINEL_ID = 2L;
+    private static final long FIRST_RESTING_ID = 10L;
+
+    private OrderBook orderBook;
+    private BookOrder[] resting;
+
+    @Setup
+    public void setUp() {
+        orderBook = new OrderBook("AAPL");
+        // Same customer as the bid, so it is skipped and keeps the ask level alive between operations
+        orderBook.add(new BookOrder(SENTINEL_ID, 2L, OrderSide.SELL, PRICE_TICKS, 1L));
+        orderBook.add(new BookOrder(AGGRESSOR_ID, 2L, OrderSide.BUY, PRICE_TICKS, RESTING + 1L));
+
+        resting = new BookOrder[RESTING];
+        for (int i = 0; i < RESTING; i++) {
+            resting[i] = new BookOrder(FIRST_RESTING_ID + i, 1L, OrderSide.SELL, PRICE_TICKS, 1L);
+        }
+    }
+
+    @Benchmark
+    public int refill() {
+        addResting();
+        for (BookOrder order : resting) {
+            orderBook.remove(order.getOrderId());
+        }
+        return orderBook.size();
+    }
+
+    @Benchmark
+    public int refillAndMatch() {
+        addResting();
+        // One lot more than the asks, so the bid stays in the book and keeps its level
+        orderBook.resize(AGGRESSOR_ID, RESTING + 1L);
+        return orderBook.match(AGGRESSOR_ID).size();
+    }
+
+    private void addResting() {
+        for (BookOrder order : resting) {
+            order.setRemainingSize(1L);
+            orderBook.add(order);
+        }
+    }
+}
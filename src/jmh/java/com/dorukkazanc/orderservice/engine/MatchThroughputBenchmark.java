@@ -0,0 +1,83 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-fill price work of the old BigDecimal path (compareTo, multiply, longValue) with the
+ * tick path, and measures a full add-and-match round trip on a book with resting depth.
+ * Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchThroughputBenchmark {
+    private static final int LEVELS = 64;
+    private static final long FILL_SIZE = 7L;
+
+    private final PriceScale priceScale = PriceScale.of(2);
+    private BigDecimal[] decimalPrices;
+    private long[] tickPrices;
+    private OrderBook orderBook;
+    private long nextOrderId;
+
+    @Setup
+    public void setUp() {
+        decimalPrices = new BigDecimal[LEVELS];
+        tickPrices = new long[LEVELS];
+        orderBook = new OrderBook("AAPL");
+
+        for (int i = 0; i < LEVELS; i++) {
+            decimalPrices[i] = new BigDecimal("150.00").add(BigDecimal.valueOf(i, 2));
+            tickPrices[i] = priceScale.toTicks(decimalPrices[i]);
+            orderBook.add(new BookOrder(nextOrderId++, 1L, OrderSide.SELL, tickPrices[i] + 1_000L, 10L));
+        }
+    }
+
+    @Benchmark
+    public long bigDecimalCrossAndCost() {
+        BigDecimal limit = decimalPrices[LEVELS / 2];
+        long cash = 0;
+        for (BigDecimal price : decimalPrices) {
+            if (limit.compareTo(price) >= 0) {
+                cash += price.multiply(BigDecimal.valueOf(FILL_SIZE)).longValue();
+            }
+        }
+        return cash;
+    }
+
+    @Benchmark
+    public long tickCrossAndCost() {
+        long limit = tickPrices[LEVELS / 2];
+        long cash = 0;
+        for (long price : tickPrices) {
+            if (limit >= price) {
+                cash += priceScale.cash(price, FILL_SIZE);
+            }
+        }
+        return cash;
+    }
+
+    @Benchmark
+    public int addAndMatch() {
+        orderBook.add(new BookOrder(nextOrderId++, 1L, OrderSide.SELL, tickPrices[0], FILL_SIZE));
+        long aggressorId = nextOrderId++;
+        orderBook.add(new BookOrder(aggressorId, 2L, OrderSide.BUY, tickPrices[0], FILL_SIZE));
+        return orderBook.match(aggressorId).size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.dorukkazanc.orderservice.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A customer's most recent orders, on the same H2 database the service runs on. The old schema kept
+ * customer_id as an unindexed string, so the lookup scanned and sorted the whole table; the migrated one has
+ * a BIGINT column with an index on (customer_id, created_date) that serves both the filter and the order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CustomerSearchBenchmark {
+    private static final int CUSTOMERS = 1_000;
+    private static final String COLUMNS = "asset_name VARCHAR(255), size BIGINT, status VARCHAR(255), created_date TIMESTAMP";
+
+    @Param({"100000"})
+    private int orders;
+
+    private Connection connection;
+    private PreparedStatement stringKey;
+    private PreparedStatement numericKey;
+    private long customerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:customer-search-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE string_orders (id BIGINT PRIMARY KEY, customer_id VARCHAR(255), " + COLUMNS + ")");
+            statement.execute("CREATE TABLE numeric_orders (id BIGINT PRIMARY KEY, customer_id BIGINT NOT NULL, " + COLUMNS + ")");
+            statement.execute("CREATE INDEX idx_numeric_orders_customer_created ON numeric_orders (customer_id, created_date)");
+        }
+        fill("INSERT INTO string_orders VALUES (?, ?, ?, ?, ?, ?)", true);
+        fill("INSERT INTO numeric_orders VALUES (?, ?, ?, ?, ?, ?)", false);
+        connection.commit();
+        stringKey = connection.prepareStatement("SELECT id, size FROM string_orders WHERE customer_id = ? "
+                + "ORDER BY created_date DESC LIMIT 20");
+        numericKey = connection.prepareStatement("SELECT id, size FROM numeric_orders WHERE customer_id = ? "
+                + "ORDER BY created_date DESC LIMIT 20");
+    }
+
+    @Setup(Level.Invocation)
+    public void nextCustomer() {
+        customerId = customerId % CUSTOMERS + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long stringCustomerId() throws SQLException {
+        stringKey.setString(1, String.valueOf(customerId));
+        return sum(stringKey);
+    }
+
+    @Benchmark
+    public long numericIndexedCustomerId() throws SQLException {
+        numericKey.setLong(1, customerId);
+        return sum(numericKey);
+    }
+
+    private long sum(PreparedStatement query) throws SQLException {
+        long total = 0;
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                total += rows.getLong(1) + rows.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    private void fill(String sql, boolean stringKeys) throws SQLException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < orders; i++) {
+                long owner = i % CUSTOMERS + 1;
+                insert.setLong(1, i + 1);
+                if (stringKeys) {
+                    insert.setString(2, String.valueOf(owner));
+                } else {
+                    insert.setLong(2, owner);
+                }
+                insert.setString(3, "AAPL");
+                insert.setLong(4, 10);
+                insert.setString(5, "PENDING");
+                insert.setTimestamp(6, Timestamp.valueOf(start.plusSeconds(i)));
+                insert.addBatch();
+                if ((i + 1) % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+}
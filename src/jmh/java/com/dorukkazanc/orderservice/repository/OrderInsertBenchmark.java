@@ -0,0 +1,139 @@
+package com.dorukkazanc.orderservice.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk order creation as Hibernate issues it, on the same H2 database the service runs on. With an identity
+ * column every insert is its own statement whose generated key has to be read back; with ids taken from a
+ * sequence in blocks of 50 (the pooled-lo allocation the entities use) the inserts go out as JDBC batches of
+ * {@code hibernate.jdbc.batch_size} with one sequence call per block.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderInsertBenchmark {
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 50;
+    private static final String COLUMNS = "customer_id VARCHAR(255), asset_name VARCHAR(255), order_side VARCHAR(255), "
+            + "size BIGINT, price NUMERIC(38, 2), status VARCHAR(255), created_date TIMESTAMP, last_modified_date TIMESTAMP";
+
+    @Param({"500"})
+    private int orders;
+
+    private Connection connection;
+    private final BigDecimal price = new BigDecimal("150.25");
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:order-insert-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_orders (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " + COLUMNS + ")");
+            statement.execute("CREATE TABLE sequence_orders (id BIGINT PRIMARY KEY, " + COLUMNS + ")");
+            statement.execute("CREATE SEQUENCE sequence_orders_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_orders");
+            statement.execute("TRUNCATE TABLE sequence_orders");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long identityPerRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO identity_orders (customer_id, asset_name, "
+                + "order_side, size, price, status, created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < orders; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long sequenceBatched() throws SQLException {
+        long nextId = 0;
+        long blockEnd = 0;
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR sequence_orders_seq");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO sequence_orders (id, customer_id, "
+                     + "asset_name, order_side, size, price, status, created_date, last_modified_date) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < orders; i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        nextId = block.getLong(1);
+                        blockEnd = nextId + ALLOCATION_SIZE;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    private void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert.setString(first, String.valueOf(i % 100));
+        insert.setString(first + 1, "AAPL");
+        insert.setString(first + 2, (i & 1) == 0 ? "BUY" : "SELL");
+        insert.setLong(first + 3, 10);
+        insert.setBigDecimal(first + 4, price);
+        insert.setString(first + 5, "PENDING");
+        insert.setTimestamp(first + 6, now);
+        insert.setTimestamp(first + 7, now);
+    }
+}
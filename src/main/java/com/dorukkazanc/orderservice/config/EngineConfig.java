@@ -0,0 +1,70 @@
+package com.dorukkazanc.orderservice.config;
+
+import com.dorukkazanc.orderservice.engine.CommandHandler;
+import com.dorukkazanc.orderservice.engine.EngineShards;
+import com.dorukkazanc.orderservice.engine.PriceScales;
+import com.dorukkazanc.orderservice.engine.ProducerType;
+import com.dorukkazanc.orderservice.gateway.GatewayHandler;
+import com.dorukkazanc.orderservice.gateway.GatewayServer;
+import com.dorukkazanc.orderservice.journal.JournalWriter;
+import com.dorukkazanc.orderservice.journal.SnapshotStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+@Configuration
+public class EngineConfig {
+
+    @Bean
+    public PriceScales priceScales(EngineProperties engineProperties) {
+        return new PriceScales(engineProperties.getDefaultPriceScale(), engineProperties.getPriceScales());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public EngineShards engineShards(EngineProperties engineProperties, CommandHandler engineCommandHandler) {
+        if (engineProperties.getProducerType() == ProducerType.SINGLE) {
+            // A single-producer ring hands out slots without synchronization and would give one to two threads
+            throw new IllegalStateException("engine.producer-type=SINGLE is not supported: commands are published from"
+                    + " request, gateway, scheduler and async entry threads, use MULTI");
+        }
+        return new EngineShards(
+                engineProperties.resolveShards(),
+                engineProperties.getRingSize(),
+                true,
+                engineProperties.getWaitStrategy(),
+                engineCommandHandler);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "engine.journal", name = "enabled", havingValue = "true")
+    public JournalWriter journalWriter(EngineProperties engineProperties) throws IOException {
+        EngineProperties.Journal journal = engineProperties.getJournal();
+        return new JournalWriter(
+                Path.of(journal.getDirectory()),
+                Math.toIntExact(journal.getSegmentSize().toBytes()),
+                journal.getFlushPolicy(),
+                journal.getFlushInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "engine.snapshot", name = "enabled", havingValue = "true")
+    public SnapshotStore snapshotStore(EngineProperties engineProperties) {
+        EngineProperties.Snapshot snapshot = engineProperties.getSnapshot();
+        return new SnapshotStore(Path.of(snapshot.getDirectory()), snapshot.getRetained());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "engine.gateway", name = "enabled", havingValue = "true")
+    public GatewayServer gatewayServer(EngineProperties engineProperties, GatewayHandler orderGateway) {
+        EngineProperties.Gateway gateway = engineProperties.getGateway();
+        return new GatewayServer(
+                new InetSocketAddress(gateway.getHost(), gateway.getPort()),
+                gateway.getWorkerThreads(),
+                gateway.getMaxInFlight(),
+                orderGateway);
+    }
+}
@@ -0,0 +1,236 @@
+package com.dorukkazanc.orderservice.config;
+
+import com.dorukkazanc.orderservice.engine.ProducerType;
+import com.dorukkazanc.orderservice.engine.WaitStrategyType;
+import com.dorukkazanc.orderservice.journal.FlushPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "engine")
+public class EngineProperties {
+    /**
+     * Decimal places of a price tick, per asset in {@code priceScales}; at most the 2 the price columns keep.
+     */
+    private int defaultPriceScale = 2;
+    private Map<String, Integer> priceScales = new HashMap<>();
+    /**
+     * Number of matching shard threads, 0 means one per available core.
+     */
+    private int shards = 0;
+    /**
+     * Slots per shard ring buffer, must be a power of 2.
+     */
+    private int ringSize = 1024;
+    private WaitStrategyType waitStrategy = WaitStrategyType.BLOCKING;
+    /**
+     * Only MULTI is accepted, commands reach the shards from many threads; SINGLE fails startup.
+     */
+    private ProducerType producerType = ProducerType.MULTI;
+    private Journal journal = new Journal();
+    private Snapshot snapshot = new Snapshot();
+    private Auction auction = new Auction();
+    private Settlement settlement = new Settlement();
+    private WriteBehind writeBehind = new WriteBehind();
+    /**
+     * Locks serializing order entry per customer, must be a power of 2.
+     */
+    private int customerLockStripes = 256;
+    private Retry retry = new Retry();
+    private Idempotency idempotency = new Idempotency();
+    private Reconciliation reconciliation = new Reconciliation();
+    private Archive archive = new Archive();
+    private Gateway gateway = new Gateway();
+    private AsyncEntry asyncEntry = new AsyncEntry();
+
+    public int resolveShards() {
+        return shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class Journal {
+        private boolean enabled = false;
+        private String directory = "data/journal";
+        /**
+         * Size of each memory-mapped segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private FlushPolicy flushPolicy = FlushPolicy.PER_BATCH;
+        /**
+         * Interval between forced flushes when the flush policy is TIMED.
+         */
+        private Duration flushInterval = Duration.ofMillis(10);
+    }
+
+    @Data
+    public static class Snapshot {
+        private boolean enabled = false;
+        private String directory = "data/snapshots";
+        private Duration interval = Duration.ofSeconds(60);
+        /**
+         * Number of snapshot files kept on disk, older ones are deleted along with the journal segments only
+         * they still needed.
+         */
+        private int retained = 2;
+    }
+
+    @Data
+    public static class Auction {
+        /**
+         * Assets that always trade in call auctions, uncrossed every interval instead of matched on entry.
+         */
+        private List<String> assets = new ArrayList<>();
+        private Duration interval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Settlement {
+        /**
+         * Distinct balances collected before the settlement window is written, 0 writes every transaction's
+         * deltas inside that transaction.
+         */
+        private int maxRows = 512;
+        /**
+         * Longest a settled delta waits before it is written to the database.
+         */
+        private Duration maxDelay = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class WriteBehind {
+        /**
+         * Writes changes to existing orders from a background thread instead of inside the command's
+         * transaction; requires the journal.
+         */
+        private boolean enabled = false;
+        /**
+         * Queued orders that trigger a write, and the most rows in one JDBC batch.
+         */
+        private int batchSize = 500;
+        /**
+         * Longest a queued order change waits before it is written to the database.
+         */
+        private Duration maxDelay = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Retry {
+        /**
+         * Attempts of a transaction that fails on an optimistic version conflict, including the first one.
+         */
+        private int maxAttempts = 3;
+        /**
+         * Pause before the second attempt, growing linearly with every further one.
+         */
+        private Duration backoff = Duration.ofMillis(10);
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * Idempotency keys remembered before the oldest are evicted.
+         */
+        private long maximumSize = 100_000;
+        /**
+         * How long a key and its response are kept after the first request, the window clients may retry in.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Reconciliation {
+        /**
+         * Runs the reconciliation every interval, otherwise it only runs when an admin asks for it.
+         */
+        private boolean scheduled = false;
+        private Duration interval = Duration.ofHours(1);
+        /**
+         * Worker threads checking chunks, 0 means half the available cores.
+         */
+        private int parallelism = 0;
+        /**
+         * Customers read and checked together in one chunk.
+         */
+        private int chunkSize = 500;
+        /**
+         * Discrepancies listed in the report, all of them are counted.
+         */
+        private int reportLimit = 1000;
+
+        public int resolveParallelism() {
+            return parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+    }
+
+    @Data
+    public static class Archive {
+        private boolean enabled = true;
+        /**
+         * Moves terminal orders to the history table every interval.
+         */
+        private Duration interval = Duration.ofMinutes(10);
+        /**
+         * Also moves them as soon as this many are waiting in the live table, 0 disables the threshold.
+         */
+        private long threshold = 10_000;
+        /**
+         * How often the threshold is checked.
+         */
+        private Duration checkInterval = Duration.ofSeconds(30);
+        /**
+         * Orders filled or canceled more recently than this stay in the live table.
+         */
+        private Duration minAge = Duration.ofMinutes(5);
+        /**
+         * Orders moved per transaction.
+         */
+        private int batchSize = 1000;
+    }
+
+    @Data
+    public static class Gateway {
+        /**
+         * Accepts order entry over the binary TCP gateway next to the REST API.
+         */
+        private boolean enabled = false;
+        private String host = "0.0.0.0";
+        private int port = 9090;
+        /**
+         * Threads carrying out gateway requests, each session uses one at a time.
+         */
+        private int workerThreads = 8;
+        /**
+         * Requests a session may have waiting for their reply before the gateway stops reading from it.
+         */
+        private int maxInFlight = 1000;
+    }
+
+    @Data
+    public static class AsyncEntry {
+        /**
+         * Threads entering orders for the asynchronous endpoint.
+         */
+        private int threads = 16;
+        /**
+         * Orders allowed to wait for an entry thread, further ones are refused until the queue drains.
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * Longest a client may wait for an order to be filled or canceled before getting its current state.
+         */
+        private Duration maxWait = Duration.ofSeconds(60);
+        /**
+         * How long shutdown waits for orders already handed to entry threads before interrupting them.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+}
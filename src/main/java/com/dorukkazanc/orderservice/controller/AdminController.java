@@ -2,7 +2,9 @@ package com.dorukkazanc.orderservice.controller;
 
 import com.dorukkazanc.orderservice.dto.*;
 import com.dorukkazanc.orderservice.service.AdminService;
-import com.dorukkazanc.orderservice.service.MatchService;
+import com.dorukkazanc.orderservice.service.OrderArchiveService;
+import com.dorukkazanc.orderservice.service.OrderSequencer;
+import com.dorukkazanc.orderservice.service.ReconciliationService;
 import com.dorukkazanc.orderservice.service.ResponseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,7 +22,9 @@ public class AdminController {
 
     private final AdminService adminService;
     private final ResponseService responseService;
-    private final MatchService matchService;
+    private final OrderSequencer orderSequencer;
+    private final ReconciliationService reconciliationService;
+    private final OrderArchiveService orderArchiveService;
 
     @GetMapping("/customers")
     public ResponseEntity<BaseResponse<List<CustomerResponseDTO>>> getAllCustomers() {
@@ -56,12 +60,8 @@ public class AdminController {
 
     @DeleteMapping("/customers/{customerId}")
     public ResponseEntity<BaseResponse<Void>> deleteCustomer(@PathVariable Long customerId) {
-        try {
-            adminService.deleteCustomer(customerId);
-            return responseService.successDelete("Customer deleted successfully");
-        } catch (Exception e) {
-            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
+        adminService.deleteCustomer(customerId);
+        return responseService.successDelete("Customer deleted successfully");
     }
 
     @GetMapping("/assets")
@@ -181,10 +181,78 @@ public class AdminController {
     @PostMapping("/orders/match/{orderId}")
     public ResponseEntity<BaseResponse<OrderMatchResponseDTO>> matchOrder(@PathVariable Long orderId) {
         try {
-            matchService.matchOrder(orderId);
+            OrderResponseDTO order = adminService.getOrderById(orderId);
+            orderSequencer.matchAndWait(order.getAssetName(), orderId);
             return responseService.success(null, "Order approved successfully");
         } catch (Exception e) {
             return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/orders/cancel")
+    public ResponseEntity<BaseResponse<Long>> cancelOrders(@RequestBody MassCancelRequestDTO massCancelRequestDTO) {
+        try {
+            long canceled = orderSequencer.massCancel(massCancelRequestDTO);
+            return responseService.success(canceled, canceled + " orders canceled");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/orders/archive")
+    public ResponseEntity<BaseResponse<Long>> archiveOrders() {
+        try {
+            long archived = orderArchiveService.archive();
+            return responseService.success(archived, "Orders archived successfully");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/auction/{assetName}/open")
+    public ResponseEntity<BaseResponse<Void>> openAuction(@PathVariable String assetName) {
+        try {
+            orderSequencer.openAuction(assetName);
+            return responseService.success(null, "Auction opened successfully");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/auction/{assetName}/uncross")
+    public ResponseEntity<BaseResponse<AuctionResultDTO>> uncrossAuction(@PathVariable String assetName) {
+        try {
+            AuctionResultDTO result = orderSequencer.uncross(assetName);
+            return responseService.success(result, "Auction uncrossed successfully");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/cache/idempotency")
+    public ResponseEntity<BaseResponse<CacheStatsDTO>> getIdempotencyStats() {
+        try {
+            CacheStatsDTO stats = adminService.getIdempotencyStats();
+            return responseService.success(stats, "Idempotency key statistics retrieved successfully");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<BaseResponse<ReconciliationReportDTO>> reconcile() {
+        try {
+            ReconciliationReportDTO report = reconciliationService.reconcile();
+            return responseService.success(report, "Reconciliation completed successfully");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<BaseResponse<ReconciliationReportDTO>> getReconciliationReport() {
+        return reconciliationService.getLastReport()
+                .map(report -> responseService.success(report, "Reconciliation report retrieved successfully"))
+                .orElseGet(() -> responseService.notFound("No reconciliation has run yet"));
+    }
+}
@@ -7,10 +7,16 @@ package com.dorukkazanc.orderservice.controller;
 
 import com.dorukkazanc.orderservice.dto.BaseResponse;
 import com.dorukkazanc.orderservice.dto.DynamicRequestDTO;
+import com.dorukkazanc.orderservice.dto.MassCancelRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderBatchRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderBatchResultDTO;
 import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
 import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
 import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
 import com.dorukkazanc.orderservice.entity.Customer;
+import com.dorukkazanc.orderservice.service.AsyncOrderService;
+import com.dorukkazanc.orderservice.service.IdempotencyCache;
+import com.dorukkazanc.orderservice.service.OrderSequencer;
 import com.dorukkazanc.orderservice.service.OrderService;
 import com.dorukkazanc.orderservice.service.ResponseService;
 import jakarta.validation.Valid;
@@ -21,9 +27,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -32,16 +43,23 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderSequencer orderSequencer;
     private final ResponseService responseService;
+    private final IdempotencyCache idempotencyCache;
+    private final AsyncOrderService asyncOrderService;
 
     @PostMapping
     public ResponseEntity<BaseResponse<OrderResponseDTO>> createOrder(
             @Valid @RequestBody OrderRequestDTO orderRequestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication) {
         try{
 
             Customer customer = (Customer) authentication.getPrincipal();
-            OrderResponseDTO createdOrder = orderService.createOrder(customer.getId(), orderRequestDTO);
+            OrderResponseDTO createdOrder = idempotencyKey == null
+                    ? orderService.createOrder(customer.getId(), orderRequestDTO)
+                    : idempotencyCache.execute(customer.getId(), idempotencyKey, orderRequestDTO,
+                            () -> orderService.createOrder(customer.getId(), orderRequestDTO));
 
             return responseService.created(createdOrder, "Order created successfully");
 
@@ -51,6 +69,60 @@ public class OrderController {
 
     }
     
+    @PostMapping("/async")
+    public CompletableFuture<ResponseEntity<BaseResponse<OrderResponseDTO>>> createOrderAsync(
+            @Valid @RequestBody OrderRequestDTO orderRequestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication) {
+        Customer customer = (Customer) authentication.getPrincipal();
+        try {
+            return asyncOrderService.createOrder(customer.getId(), idempotencyKey, orderRequestDTO)
+                    .thenApply(createdOrder -> responseService.accepted(createdOrder, "Order accepted"))
+                    .exceptionally(e -> responseService.error(failureMessage(e), HttpStatus.BAD_REQUEST));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(
+                    responseService.error("Order entry is busy, retry later", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public DeferredResult<ResponseEntity<BaseResponse<OrderResponseDTO>>> getOrder(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") long waitMillis,
+            Authentication authentication) {
+        Customer customer = (Customer) authentication.getPrincipal();
+        Optional<OrderResponseDTO> order = orderService.getOrderById(id)
+                .filter(found -> found.getCustomerId().equals(customer.getId()));
+        if (order.isEmpty() || waitMillis <= 0) {
+            DeferredResult<ResponseEntity<BaseResponse<OrderResponseDTO>>> result = new DeferredResult<>();
+            result.setResult(responseService.fromOptional(order, "Order retrieved successfully", "Order not found with id: " + id));
+            return result;
+        }
+
+        DeferredResult<ResponseEntity<BaseResponse<OrderResponseDTO>>> result = new DeferredResult<>(
+                Math.min(waitMillis, asyncOrderService.getMaxWaitMillis()),
+                () -> responseService.fromOptional(orderService.getOrderById(id), "Order retrieved successfully",
+                        "Order not found with id: " + id));
+        CompletableFuture<OrderResponseDTO> finalStatus = asyncOrderService.awaitFinalStatus(order.get());
+        result.onCompletion(() -> finalStatus.cancel(false));
+        finalStatus.thenAccept(finalOrder -> result.setResult(responseService.success(finalOrder, "Order retrieved successfully")));
+        return result;
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BaseResponse<List<OrderBatchResultDTO>>> createOrders(
+            @Valid @RequestBody OrderBatchRequestDTO orderBatchRequestDTO,
+            Authentication authentication) {
+        try {
+            Customer customer = (Customer) authentication.getPrincipal();
+            List<OrderBatchResultDTO> results = orderService.createOrders(customer.getId(), orderBatchRequestDTO.getOrders());
+            long accepted = results.stream().filter(OrderBatchResultDTO::isAccepted).count();
+            return responseService.created(results, accepted + " of " + results.size() + " orders created");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PostMapping("/search")
     public ResponseEntity<BaseResponse<List<OrderResponseDTO>>> searchOrders(
             @RequestBody DynamicRequestDTO request,
@@ -66,21 +138,52 @@ public class OrderController {
 
     @PutMapping("/{id}")
     public ResponseEntity<BaseResponse<OrderResponseDTO>> updateOrder(@PathVariable Long id, 
-                                                       @Valid @RequestBody OrderUpdateDTO orderUpdateDTO) {
-        return responseService.fromOptional(
-                orderService.updateOrder(id, orderUpdateDTO),
-                "Order updated successfully",
-                "Order not found with id: " + id
-        );
+                                                       @Valid @RequestBody OrderUpdateDTO orderUpdateDTO,
+                                                       Authentication authentication) {
+        if (orderUpdateDTO.getStatus() != null) {
+            return responseService.error("Order status cannot be changed, cancel the order instead", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Customer customer = (Customer) authentication.getPrincipal();
+            return responseService.fromOptional(
+                    orderService.getOrderById(id)
+                            .filter(found -> found.getCustomerId().equals(customer.getId()))
+                            .flatMap(order -> orderSequencer.amend(order.getAssetName(), id, orderUpdateDTO)),
+                    "Order updated successfully",
+                    "Order not found with id: " + id
+            );
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/cancel")
+    public ResponseEntity<BaseResponse<Long>> cancelOrders(
+            @RequestBody MassCancelRequestDTO massCancelRequestDTO,
+            Authentication authentication) {
+        try {
+            Customer customer = (Customer) authentication.getPrincipal();
+            massCancelRequestDTO.setCustomerId(customer.getId());
+            long canceled = orderSequencer.massCancel(massCancelRequestDTO);
+            return responseService.success(canceled, canceled + " orders canceled");
+        } catch (Exception e) {
+            return responseService.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<BaseResponse<Void>> deleteOrder(@PathVariable Long id, Authentication authentication) {
         Customer customer = (Customer) authentication.getPrincipal();
 
-        boolean deleted = orderService.deleteOrder(id, customer.getId());
+        boolean deleted = orderService.getOrderById(id)
+                .map(order -> orderSequencer.cancel(order.getAssetName(), id, customer.getId()))
+                .orElse(false);
         return deleted 
                 ? responseService.successDelete("Order canceled successfully")
                 : responseService.error("Only pending orders can be canceled or order not found with id: " + id, HttpStatus.NOT_FOUND);
     }
+
+    private String failureMessage(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage();
+    }
 }
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class AssetResponseDTO {
     
     private Long id;
-    private String customerId;
+    private Long customerId;
     private String assetName;
     private Long size;
     private Long usableSize;
@@ -0,0 +1,19 @@
+package com.dorukkazanc.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuctionResultDTO {
+    private String assetName;
+    private BigDecimal clearingPrice;
+    private Long volume;
+    private Integer executions;
+}
@@ -0,0 +1,27 @@
+package com.dorukkazanc.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceDiscrepancyDTO {
+    private Long customerId;
+    private String assetName;
+    private Long assetId;
+    private Long size;
+    private Long usableSize;
+    /**
+     * What the balance holds back, {@code size - usableSize}.
+     */
+    private Long heldSize;
+    /**
+     * What the customer's PENDING orders reserve against the balance.
+     */
+    private Long reservedSize;
+    private Integer pendingOrders;
+}
@@ -14,7 +14,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LoginResponseDTO {
-    private String customerId;
+    private Long customerId;
     private String username;
     private UserRole role;
     private Boolean active;
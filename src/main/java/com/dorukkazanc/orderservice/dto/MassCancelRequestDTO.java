@@ -0,0 +1,25 @@
+package com.dorukkazanc.orderservice.dto;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Selects the PENDING orders a mass cancel takes down. Every filter left empty matches all orders; for
+ * customers {@code customerId} is always their own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MassCancelRequestDTO {
+    private Long customerId;
+    private String assetName;
+    private OrderSide orderSide;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
@@ -1,21 +0,0 @@
-package com.dorukkazanc.orderservice.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
-@Data
-@Builder
-@AllArgsConstructor
-@NoArgsConstructor
-public class MatchExecutionResult {
-    private Long matchedOrderId;
-    private Long matchedSize;
-    private BigDecimal executionPrice;
-    private BigDecimal totalValue;
-    private LocalDateTime matchTime;
-}
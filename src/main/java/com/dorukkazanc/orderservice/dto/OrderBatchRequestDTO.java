@@ -0,0 +1,22 @@
+package com.dorukkazanc.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchRequestDTO {
+
+    @NotEmpty(message = "Orders cannot be empty")
+    @Size(max = 1000, message = "At most 1000 orders can be sent in one batch")
+    private List<@Valid OrderRequestDTO> orders;
+}
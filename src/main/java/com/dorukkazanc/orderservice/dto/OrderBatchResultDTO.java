@@ -0,0 +1,20 @@
+package com.dorukkazanc.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a batch, {@code index} is its position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResultDTO {
+    private int index;
+    private boolean accepted;
+    private OrderResponseDTO order;
+    private String error;
+}
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 public class OrderResponseDTO {
     
     private Long id;
-    private String customerId;
+    private Long customerId;
     private String assetName;
     private OrderSide orderSide;
     private Long size;
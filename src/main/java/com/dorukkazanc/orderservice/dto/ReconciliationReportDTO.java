@@ -0,0 +1,26 @@
+package com.dorukkazanc.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReportDTO {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long customersChecked;
+    private Long balancesChecked;
+    private Long ordersChecked;
+    private Long discrepancyCount;
+    /**
+     * The first {@code engine.reconciliation.report-limit} discrepancies by customer and asset.
+     */
+    private List<BalanceDiscrepancyDTO> discrepancies;
+}
@@ -0,0 +1,14 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.List;
+
+/**
+ * Outcome of uncrossing a book: the single price every trade executed at and the trades themselves.
+ * A book that did not cross has no clearing price and no trades.
+ */
+public record AuctionResult(Long clearingPriceTicks, long volume, List<AuctionTrade> trades) {
+
+    static AuctionResult none() {
+        return new AuctionResult(null, 0L, List.of());
+    }
+}
@@ -0,0 +1,9 @@
+package com.dorukkazanc.orderservice.engine;
+
+/**
+ * One execution of a call auction between a resting bid and a resting ask, at the clearing price. The
+ * remaining sizes are those of the two orders right after this trade.
+ */
+public record AuctionTrade(long buyOrderId, long buyCustomerId, long buyRemainingSize,
+                           long sellOrderId, long sellCustomerId, long sellRemainingSize, long quantity) {
+}
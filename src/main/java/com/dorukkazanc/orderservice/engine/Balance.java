@@ -0,0 +1,94 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.time.LocalDateTime;
+
+/**
+ * One customer's holding of one asset, mirroring a row of the assets table. {@code size} is what the customer
+ * owns and {@code usableSize} the part of it not held by reservations of resting orders. Updates come from
+ * several threads (order entry and every shard the customer trades on), so both values change under the
+ * balance's own lock.
+ * <p>
+ * Besides the live values, which include what transactions still in flight have applied, a balance keeps the
+ * values as of its last committed change; those are what the command journal records.
+ */
+public class Balance {
+    private final long id;
+    private final long customerId;
+    private final String assetName;
+    private final LocalDateTime createdDate;
+    private long size;
+    private long usableSize;
+    private long committedSize;
+    private long committedUsableSize;
+
+    public Balance(long id, long customerId, String assetName, long size, long usableSize, LocalDateTime createdDate) {
+        this.id = id;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.size = size;
+        this.usableSize = usableSize;
+        this.committedSize = size;
+        this.committedUsableSize = usableSize;
+        this.createdDate = createdDate;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized long getUsableSize() {
+        return usableSize;
+    }
+
+    /**
+     * Takes {@code amount} out of the usable size if that much is available.
+     */
+    public synchronized boolean reserve(long amount) {
+        if (usableSize < amount) {
+            return false;
+        }
+        usableSize -= amount;
+        return true;
+    }
+
+    public synchronized void apply(long sizeDelta, long usableSizeDelta) {
+        size += sizeDelta;
+        usableSize += usableSizeDelta;
+    }
+
+    /**
+     * Adds the net change of a committed transaction to the committed values and returns them as
+     * {@code {size, usableSize}}.
+     */
+    public synchronized long[] commit(long sizeDelta, long usableSizeDelta) {
+        committedSize += sizeDelta;
+        committedUsableSize += usableSizeDelta;
+        return new long[]{committedSize, committedUsableSize};
+    }
+
+    /**
+     * Takes over values that are already committed, as after an admin edit.
+     */
+    public synchronized void set(long size, long usableSize) {
+        this.size = size;
+        this.usableSize = usableSize;
+        this.committedSize = size;
+        this.committedUsableSize = usableSize;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resident balances of every customer and asset, plus the reservation each resting order holds against one
+ * of them: cash at its limit for a buy, shares for a sell. Pre-trade checks and fill settlement run against
+ * this ledger instead of the database; persisting the changes is up to the caller.
+ * <p>
+ * Safe for concurrent use. Balances are looked up through a map per customer, so a lookup allocates at most
+ * the boxed customer id.
+ */
+public class BalanceLedger {
+    private final Map<Long, Map<String, Balance>> balances = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+
+    public Balance get(long customerId, String assetName) {
+        Map<String, Balance> customerBalances = balances.get(customerId);
+        return customerBalances != null ? customerBalances.get(assetName) : null;
+    }
+
+    public void put(Balance balance) {
+        balances.computeIfAbsent(balance.getCustomerId(), id -> new ConcurrentHashMap<>())
+                .put(balance.getAssetName(), balance);
+    }
+
+    public void remove(Balance balance) {
+        Map<String, Balance> customerBalances = balances.get(balance.getCustomerId());
+        if (customerBalances != null) {
+            customerBalances.remove(balance.getAssetName(), balance);
+        }
+    }
+
+    /**
+     * Balance of a customer and asset, created through {@code factory} when the customer has none yet.
+     */
+    public Balance getOrCreate(long customerId, String assetName, BalanceFactory factory) {
+        return balances.computeIfAbsent(customerId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(assetName, name -> factory.create(customerId, name));
+    }
+
+    public void clear() {
+        balances.clear();
+        reservations.clear();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Balance> customerBalances : balances.values()) {
+            size += customerBalances.size();
+        }
+        return size;
+    }
+
+    /**
+     * Reserves {@code amount} of a balance for an order. Fails without changing anything when the usable
+     * size does not cover it.
+     */
+    public boolean reserve(long orderId, Balance balance, long amount) {
+        if (!balance.reserve(amount)) {
+            return false;
+        }
+        adjustReservation(orderId, balance, amount);
+        return true;
+    }
+
+    /**
+     * Drops the reservation of an order and returns what it still held to the usable size.
+     *
+     * @return the amount released, 0 when the order holds no reservation
+     */
+    public long release(long orderId) {
+        Reservation reservation = reservations.remove(orderId);
+        if (reservation == null) {
+            return 0;
+        }
+        long amount = reservation.getAmount();
+        reservation.getBalance().apply(0, amount);
+        return amount;
+    }
+
+    /**
+     * Changes what an order holds in reserve without touching the balance itself, used when a fill settles
+     * part of the reservation and to restore reservations on startup. A reservation reaching zero is dropped.
+     */
+    public void adjustReservation(long orderId, Balance balance, long delta) {
+        reservations.compute(orderId, (id, reservation) -> {
+            long amount = (reservation != null ? reservation.getAmount() : 0) + delta;
+            if (amount <= 0) {
+                return null;
+            }
+            if (reservation == null) {
+                return new Reservation(balance, amount);
+            }
+            reservation.setAmount(amount);
+            return reservation;
+        });
+    }
+
+    public Reservation getReservation(long orderId) {
+        return reservations.get(orderId);
+    }
+
+    @FunctionalInterface
+    public interface BalanceFactory {
+        Balance create(long customerId, String assetName);
+    }
+
+    public static class Reservation {
+        private final Balance balance;
+        private long amount;
+
+        Reservation(Balance balance, long amount) {
+            this.balance = balance;
+            this.amount = amount;
+        }
+
+        public Balance getBalance() {
+            return balance;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        void setAmount(long amount) {
+            this.amount = amount;
+        }
+    }
+}
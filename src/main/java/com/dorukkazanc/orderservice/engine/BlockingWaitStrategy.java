@@ -0,0 +1,41 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parks the shard thread on a condition until a producer publishes. Uses no CPU while idle at the
+ * cost of a lock handoff per wake-up.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    @Override
+    public long waitFor(long sequence, AtomicLong cursor, BooleanSupplier running) throws InterruptedException {
+        long available = cursor.get();
+        if (available < sequence) {
+            lock.lock();
+            try {
+                while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                    published.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
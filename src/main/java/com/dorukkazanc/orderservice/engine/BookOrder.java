@@ -0,0 +1,76 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+
+/**
+ * Resting order as held by an {@link OrderBook}. Only the fields needed for matching are kept here,
+ * the JPA {@code Order} stays the record of truth for everything else.
+ */
+public class BookOrder {
+    private final long orderId;
+    private final long customerId;
+    private final OrderSide side;
+    private final long priceTicks;
+    private long remainingSize;
+    private PriceLevel level;
+    private BookOrder prev;
+    private BookOrder next;
+
+    public BookOrder(long orderId, long customerId, OrderSide side, long priceTicks, long remainingSize) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.priceTicks = priceTicks;
+        this.remainingSize = remainingSize;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public OrderSide getSide() {
+        return side;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public long getRemainingSize() {
+        return remainingSize;
+    }
+
+    void setRemainingSize(long remainingSize) {
+        this.remainingSize = remainingSize;
+    }
+
+    PriceLevel getLevel() {
+        return level;
+    }
+
+    BookOrder getPrev() {
+        return prev;
+    }
+
+    BookOrder getNext() {
+        return next;
+    }
+
+    void link(PriceLevel level, BookOrder prev, BookOrder next) {
+        this.level = level;
+        this.prev = prev;
+        this.next = next;
+    }
+
+    void setPrev(BookOrder prev) {
+        this.prev = prev;
+    }
+
+    void setNext(BookOrder next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,121 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Uncrosses a book in one step instead of matching order by order. The clearing price is the one that
+ * maximises executable volume, found in a single pass over the merged bid and ask levels in ascending price
+ * order while carrying the cumulative supply (asks at or below the price) and demand (bids at or above it).
+ * Ties go to the smaller imbalance between the two, then to the middle of the prices still tied.
+ * <p>
+ * Every bid at or above the clearing price and every ask at or below it then trades at that price, bids and
+ * asks each taken in price-time priority. As in continuous matching, orders of the same customer never trade
+ * with each other, which can leave the executed volume below the computed one.
+ */
+public final class CallAuction {
+
+    private CallAuction() {
+    }
+
+    public static AuctionResult uncross(OrderBook book) {
+        Long clearingPriceTicks = clearingPrice(book.bids(), book.asks());
+        if (clearingPriceTicks == null) {
+            return AuctionResult.none();
+        }
+        long price = clearingPriceTicks;
+
+        List<BookOrder> bids = eligible(book.bids(), price, true);
+        List<BookOrder> asks = eligible(book.asks(), price, false);
+        List<AuctionTrade> trades = new ArrayList<>();
+        long volume = 0;
+        int firstOpenAsk = 0;
+
+        for (BookOrder bid : bids) {
+            for (int i = firstOpenAsk; i < asks.size() && bid.getRemainingSize() > 0; i++) {
+                BookOrder ask = asks.get(i);
+                if (ask.getRemainingSize() == 0 || ask.getCustomerId() == bid.getCustomerId()) {
+                    continue;
+                }
+                long quantity = Math.min(bid.getRemainingSize(), ask.getRemainingSize());
+                book.reduce(bid, quantity);
+                book.reduce(ask, quantity);
+                trades.add(new AuctionTrade(bid.getOrderId(), bid.getCustomerId(), bid.getRemainingSize(),
+                        ask.getOrderId(), ask.getCustomerId(), ask.getRemainingSize(), quantity));
+                volume += quantity;
+            }
+            while (firstOpenAsk < asks.size() && asks.get(firstOpenAsk).getRemainingSize() == 0) {
+                firstOpenAsk++;
+            }
+        }
+        return new AuctionResult(clearingPriceTicks, volume, trades);
+    }
+
+    /**
+     * Price that maximises executable volume, or null when the best bid is below the best ask.
+     */
+    static Long clearingPrice(NavigableMap<Long, PriceLevel> bids, NavigableMap<Long, PriceLevel> asks) {
+        if (bids.isEmpty() || asks.isEmpty() || bids.firstKey() < asks.firstKey()) {
+            return null;
+        }
+
+        long totalDemand = 0;
+        for (PriceLevel level : bids.values()) {
+            totalDemand += level.getTotalSize();
+        }
+
+        // Bids are stored best (highest) first, walk them from the lowest up alongside the asks
+        var bidLevels = bids.descendingMap().entrySet().iterator();
+        var askLevels = asks.entrySet().iterator();
+        Map.Entry<Long, PriceLevel> bid = bidLevels.hasNext() ? bidLevels.next() : null;
+        Map.Entry<Long, PriceLevel> ask = askLevels.hasNext() ? askLevels.next() : null;
+
+        long supply = 0;
+        long demandBelow = 0;
+        long bestVolume = 0;
+        long bestImbalance = Long.MAX_VALUE;
+        long bestLow = 0;
+        long bestHigh = 0;
+
+        while (bid != null || ask != null) {
+            long price = bid == null ? ask.getKey() : ask == null ? bid.getKey() : Math.min(bid.getKey(), ask.getKey());
+
+            while (ask != null && ask.getKey() <= price) {
+                supply += ask.getValue().getTotalSize();
+                ask = askLevels.hasNext() ? askLevels.next() : null;
+            }
+            long demand = totalDemand - demandBelow;
+            while (bid != null && bid.getKey() <= price) {
+                demandBelow += bid.getValue().getTotalSize();
+                bid = bidLevels.hasNext() ? bidLevels.next() : null;
+            }
+
+            long volume = Math.min(demand, supply);
+            long imbalance = Math.abs(demand - supply);
+            if (volume > bestVolume || (volume == bestVolume && volume > 0 && imbalance < bestImbalance)) {
+                bestVolume = volume;
+                bestImbalance = imbalance;
+                bestLow = price;
+                bestHigh = price;
+            } else if (volume == bestVolume && volume > 0 && imbalance == bestImbalance) {
+                bestHigh = price;
+            }
+        }
+        return bestVolume == 0 ? null : bestLow + (bestHigh - bestLow) / 2;
+    }
+
+    private static List<BookOrder> eligible(NavigableMap<Long, PriceLevel> side, long price, boolean bids) {
+        List<BookOrder> orders = new ArrayList<>();
+        for (PriceLevel level : side.values()) {
+            if (bids ? level.getPriceTicks() < price : level.getPriceTicks() > price) {
+                break;
+            }
+            for (BookOrder order = level.head(); order != null; order = order.getNext()) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+}
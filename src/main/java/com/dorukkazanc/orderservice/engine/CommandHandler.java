@@ -0,0 +1,11 @@
+package com.dorukkazanc.orderservice.engine;
+
+@FunctionalInterface
+public interface CommandHandler {
+
+    /**
+     * Handles one command on the shard thread. {@code endOfBatch} is true for the last command of the
+     * batch drained in one wake-up, which lets handlers defer per-batch work such as flushing.
+     */
+    void onCommand(EngineCommand command, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,64 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Consumer loop of one shard. Each wake-up drains every command published so far as one batch, then
+ * releases the consumed slots to producers in a single step.
+ */
+public class CommandProcessor implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(CommandProcessor.class);
+
+    private final RingBuffer ringBuffer;
+    private final CommandHandler handler;
+    private volatile boolean running = true;
+
+    public CommandProcessor(RingBuffer ringBuffer, CommandHandler handler) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+    }
+
+    public void halt() {
+        running = false;
+        ringBuffer.getWaitStrategy().signalAllWhenBlocking();
+    }
+
+    @Override
+    public void run() {
+        long nextSequence = ringBuffer.getConsumerSequence().get() + 1;
+        while (running) {
+            long available;
+            try {
+                available = ringBuffer.getWaitStrategy().waitFor(nextSequence, ringBuffer.getCursor(), () -> running);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long highest = ringBuffer.highestPublished(nextSequence, available);
+            while (nextSequence <= highest) {
+                EngineCommand command = ringBuffer.get(nextSequence);
+                try {
+                    handler.onCommand(command, nextSequence, nextSequence == highest);
+                } catch (Throwable e) {
+                    CompletableFuture<Object> reply = command.getReply();
+                    if (reply != null) {
+                        reply.completeExceptionally(e);
+                    } else {
+                        log.error("Engine command {} for order {} failed: {}",
+                                command.getType(), command.getOrderId(), e.getMessage(), e);
+                    }
+                } finally {
+                    command.clear();
+                }
+                nextSequence++;
+            }
+            if (highest >= ringBuffer.getConsumerSequence().get() + 1) {
+                ringBuffer.getConsumerSequence().set(highest);
+            }
+        }
+    }
+}
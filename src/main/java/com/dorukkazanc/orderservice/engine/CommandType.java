@@ -0,0 +1,10 @@
+package com.dorukkazanc.orderservice.engine;
+
+public enum CommandType {
+    NEW_ORDER,
+    MATCH,
+    CANCEL,
+    MASS_CANCEL,
+    AMEND,
+    UNCROSS
+}
@@ -0,0 +1,54 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One slot of a {@link RingBuffer}. Instances are allocated once with the ring and overwritten by every
+ * command published into their slot, so the fields are plain and mutable.
+ */
+public class EngineCommand {
+    private CommandType type;
+    private String assetName;
+    private long orderId;
+    private long customerId;
+    private Object payload;
+    private CompletableFuture<Object> reply;
+
+    public CommandType getType() {
+        return type;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public CompletableFuture<Object> getReply() {
+        return reply;
+    }
+
+    public void set(CommandType type, String assetName, long orderId, long customerId,
+                    Object payload, CompletableFuture<Object> reply) {
+        this.type = type;
+        this.assetName = assetName;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.payload = payload;
+        this.reply = reply;
+    }
+
+    void clear() {
+        set(null, null, 0L, 0L, null, null);
+    }
+}
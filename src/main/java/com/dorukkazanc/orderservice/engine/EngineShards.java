@@ -0,0 +1,71 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fixed set of single-threaded matching shards. Every asset is pinned to one shard by a stable hash of
+ * its name, so work for one asset is always serial while different shards run in parallel. Commands
+ * reach a shard through its preallocated {@link RingBuffer} and are drained in batches by the shard's
+ * {@link CommandProcessor}.
+ */
+public class EngineShards implements AutoCloseable {
+    private final RingBuffer[] ringBuffers;
+    private final CommandProcessor[] processors;
+    private final Thread[] threads;
+
+    public EngineShards(int shardCount, int ringSize, boolean multiProducer,
+                        WaitStrategyType waitStrategyType, CommandHandler handler) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        ringBuffers = new RingBuffer[shardCount];
+        processors = new CommandProcessor[shardCount];
+        threads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            ringBuffers[i] = new RingBuffer(ringSize, multiProducer, waitStrategyType.newInstance());
+            processors[i] = new CommandProcessor(ringBuffers[i], handler);
+            threads[i] = new Thread(processors[i], "engine-shard-" + i);
+            threads[i].setDaemon(true);
+        }
+    }
+
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    public int size() {
+        return ringBuffers.length;
+    }
+
+    public int shardOf(String assetName) {
+        return Math.floorMod(assetName.hashCode(), ringBuffers.length);
+    }
+
+    public void publish(CommandType type, String assetName, long orderId, long customerId,
+                        Object payload, CompletableFuture<Object> reply) {
+        RingBuffer ringBuffer = ringBuffers[shardOf(assetName)];
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).set(type, assetName, orderId, customerId, payload, reply);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (CommandProcessor processor : processors) {
+            processor.halt();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(1_000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
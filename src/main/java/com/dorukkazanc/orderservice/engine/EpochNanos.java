@@ -0,0 +1,18 @@
+package com.dorukkazanc.orderservice.engine;
+
+/**
+ * Primitive wall-clock timestamps in nanoseconds since the epoch. The wall clock is read once and the
+ * monotonic {@link System#nanoTime()} is added on top, so taking a timestamp neither allocates nor jumps
+ * backwards when the system clock is adjusted.
+ */
+public final class EpochNanos {
+    private static final long BASE_EPOCH_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long BASE_NANO_TIME = System.nanoTime();
+
+    private EpochNanos() {
+    }
+
+    public static long now() {
+        return BASE_EPOCH_NANOS + (System.nanoTime() - BASE_NANO_TIME);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dorukkazanc.orderservice.engine;
+
+/**
+ * One execution between the aggressing order and a resting order, priced at the resting order's level.
+ * Instances are slots of a {@link FillBuffer} and are overwritten by the next match on the same book, so
+ * read them before matching again and do not keep references.
+ */
+public final class Fill {
+    private long restingOrderId;
+    private long restingCustomerId;
+    private long quantity;
+    private long priceTicks;
+    private long restingRemainingSize;
+    private long timestampNanos;
+
+    void set(long restingOrderId, long restingCustomerId, long quantity, long priceTicks,
+             long restingRemainingSize, long timestampNanos) {
+        this.restingOrderId = restingOrderId;
+        this.restingCustomerId = restingCustomerId;
+        this.quantity = quantity;
+        this.priceTicks = priceTicks;
+        this.restingRemainingSize = restingRemainingSize;
+        this.timestampNanos = timestampNanos;
+    }
+
+    public long getRestingOrderId() {
+        return restingOrderId;
+    }
+
+    public long getRestingCustomerId() {
+        return restingCustomerId;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public long getRestingRemainingSize() {
+        return restingRemainingSize;
+    }
+
+    /**
+     * Execution time in nanoseconds since the epoch, see {@link EpochNanos}.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dorukkazanc.orderservice.engine;
+
+/**
+ * Reusable, preallocated {@link Fill} slots for the result of one match. The buffer only grows when a
+ * match produces more fills than any match before it, after that matching allocates nothing for its fills.
+ */
+public class FillBuffer {
+    private Fill[] fills;
+    private int size;
+
+    public FillBuffer(int initialCapacity) {
+        fills = new Fill[Math.max(1, initialCapacity)];
+        for (int i = 0; i < fills.length; i++) {
+            fills[i] = new Fill();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Fill get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Fill " + index + " of " + size);
+        }
+        return fills[index];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    Fill next() {
+        if (size == fills.length) {
+            Fill[] grown = new Fill[fills.length * 2];
+            System.arraycopy(fills, 0, grown, 0, fills.length);
+            for (int i = fills.length; i < grown.length; i++) {
+                grown[i] = new Fill();
+            }
+            fills = grown;
+        }
+        return fills[size++];
+    }
+}
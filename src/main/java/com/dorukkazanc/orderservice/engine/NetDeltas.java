@@ -0,0 +1,63 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Net change of {@code size} and {@code usableSize} per {@link Balance}, accumulated over any number of fills.
+ * However many fills touch a balance, settling the collected deltas takes one write per balance. Not thread-safe.
+ */
+public class NetDeltas {
+    private final Map<Balance, long[]> deltas = new IdentityHashMap<>();
+
+    /**
+     * @return true when this is the first change collected for the balance
+     */
+    public boolean add(Balance balance, long sizeDelta, long usableSizeDelta) {
+        long[] delta = deltas.get(balance);
+        boolean first = delta == null;
+        if (first) {
+            delta = new long[2];
+            deltas.put(balance, delta);
+        }
+        delta[0] += sizeDelta;
+        delta[1] += usableSizeDelta;
+        return first;
+    }
+
+    public void addAll(NetDeltas other) {
+        other.deltas.forEach((balance, delta) -> add(balance, delta[0], delta[1]));
+    }
+
+    /**
+     * Net change collected for a balance as {@code {sizeDelta, usableSizeDelta}}, zeros when there is none.
+     */
+    public long[] get(Balance balance) {
+        long[] delta = deltas.get(balance);
+        return delta != null ? delta.clone() : new long[2];
+    }
+
+    public int size() {
+        return deltas.size();
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Visits the balances whose net change is not zero.
+     */
+    public void forEach(DeltaConsumer consumer) {
+        deltas.forEach((balance, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                consumer.accept(balance, delta[0], delta[1]);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface DeltaConsumer {
+        void accept(Balance balance, long sizeDelta, long usableSizeDelta);
+    }
+}
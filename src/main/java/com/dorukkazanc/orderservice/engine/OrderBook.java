@@ -0,0 +1,185 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+
+import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Price-time priority book for a single asset. Bids are kept best (highest) first, asks best (lowest)
+ * first, and every price level is a FIFO queue. Orders are indexed by id in a primitive-keyed map and know
+ * their level and queue neighbours, so finding and unlinking an order is constant time. Not thread safe,
+ * callers serialize access per book.
+ */
+public class OrderBook {
+    private final String assetName;
+    private final NavigableMap<Long, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Long, PriceLevel> asks = new TreeMap<>();
+    private final LongObjectMap<BookOrder> orders = new LongObjectMap<>();
+    private final FillBuffer fills = new FillBuffer(16);
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public BookOrder get(long orderId) {
+        return orders.get(orderId);
+    }
+
+    public void add(BookOrder order) {
+        if (orders.putIfAbsent(order.getOrderId(), order) != null) {
+            throw new IllegalStateException("Order " + order.getOrderId() + " is already in the " + assetName + " book");
+        }
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPriceTicks(), PriceLevel::new)
+                .add(order);
+    }
+
+    /**
+     * Takes an order out of the book, returning it with the size it still had open, or null when it was
+     * not in the book. Only dropping a level that became empty touches the sorted side.
+     */
+    public BookOrder remove(long orderId) {
+        BookOrder order = orders.remove(orderId);
+        if (order != null) {
+            unlink(order);
+        }
+        return order;
+    }
+
+    /**
+     * Changes the open size of a resting order in place, keeping its queue position.
+     */
+    public void resize(long orderId, long newSize) {
+        BookOrder order = orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        if (newSize <= 0) {
+            remove(orderId);
+            return;
+        }
+        order.getLevel().resize(order, newSize);
+    }
+
+    /**
+     * Matches a resting order of this book against the opposite side, best price first and FIFO within
+     * a level. Orders of the same customer are skipped. Only levels that cross the order's limit are
+     * visited, and filled resting orders as well as emptied levels are removed as they are consumed.
+     * <p>
+     * The fills are written to this book's reusable {@link FillBuffer}, which stays valid until the next
+     * match on the book. Levels are reached through their keys rather than map entries or iterators and
+     * the id index has primitive keys, so the loop does not allocate per fill.
+     */
+    public FillBuffer match(long orderId) {
+        fills.clear();
+        BookOrder aggressor = orders.get(orderId);
+        if (aggressor == null) {
+            return fills;
+        }
+
+        long timestampNanos = EpochNanos.now();
+        PriceLevel aggressorLevel = aggressor.getLevel();
+        NavigableMap<Long, PriceLevel> opposite = aggressor.getSide() == OrderSide.BUY ? asks : bids;
+        Long levelKey = opposite.isEmpty() ? null : opposite.firstKey();
+
+        while (aggressor.getRemainingSize() > 0 && levelKey != null) {
+            PriceLevel level = opposite.get(levelKey);
+            if (!crosses(aggressor, level.getPriceTicks())) {
+                break;
+            }
+
+            BookOrder resting = level.head();
+            while (aggressor.getRemainingSize() > 0 && resting != null) {
+                BookOrder next = resting.getNext();
+                if (resting.getCustomerId() == aggressor.getCustomerId()) {
+                    resting = next;
+                    continue;
+                }
+
+                long quantity = Math.min(aggressor.getRemainingSize(), resting.getRemainingSize());
+                level.resize(resting, resting.getRemainingSize() - quantity);
+                aggressorLevel.resize(aggressor, aggressor.getRemainingSize() - quantity);
+
+                if (resting.getRemainingSize() == 0) {
+                    level.remove(resting);
+                    orders.remove(resting.getOrderId());
+                }
+                fills.next().set(resting.getOrderId(), resting.getCustomerId(), quantity,
+                        level.getPriceTicks(), resting.getRemainingSize(), timestampNanos);
+                resting = next;
+            }
+
+            Long nextKey = opposite.higherKey(levelKey);
+            if (level.isEmpty()) {
+                opposite.remove(levelKey);
+            }
+            levelKey = nextKey;
+        }
+
+        if (aggressor.getRemainingSize() == 0) {
+            remove(aggressor.getOrderId());
+        }
+        return fills;
+    }
+
+    public Long bestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+
+    public Long bestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+
+    /**
+     * Runs a call auction over the whole book, see {@link CallAuction}.
+     */
+    public AuctionResult uncross() {
+        return CallAuction.uncross(this);
+    }
+
+    NavigableMap<Long, PriceLevel> bids() {
+        return bids;
+    }
+
+    NavigableMap<Long, PriceLevel> asks() {
+        return asks;
+    }
+
+    /**
+     * Takes a traded quantity off an order, dropping it from the book once nothing is left open.
+     */
+    void reduce(BookOrder order, long quantity) {
+        order.getLevel().resize(order, order.getRemainingSize() - quantity);
+        if (order.getRemainingSize() == 0) {
+            remove(order.getOrderId());
+        }
+    }
+
+    private void unlink(BookOrder order) {
+        PriceLevel level = order.getLevel();
+        level.remove(order);
+        if (level.isEmpty()) {
+            sideOf(order.getSide()).remove(level.getPriceKey());
+        }
+    }
+
+    private static boolean crosses(BookOrder aggressor, long levelPriceTicks) {
+        return aggressor.getSide() == OrderSide.BUY
+                ? aggressor.getPriceTicks() >= levelPriceTicks
+                : aggressor.getPriceTicks() <= levelPriceTicks;
+    }
+
+    private NavigableMap<Long, PriceLevel> sideOf(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dorukkazanc.orderservice.engine;
+
+/**
+ * All resting orders of one side at one price, in arrival (FIFO) order. The queue is an intrusive doubly
+ * linked list through the {@link BookOrder}s themselves, so an order is unlinked in constant time wherever
+ * it sits in the queue.
+ */
+public class PriceLevel {
+    private final Long priceKey;
+    private BookOrder head;
+    private BookOrder tail;
+    private int orderCount;
+    private long totalSize;
+
+    public PriceLevel(Long priceKey) {
+        this.priceKey = priceKey;
+    }
+
+    public long getPriceTicks() {
+        return priceKey;
+    }
+
+    /**
+     * The price boxed once for this level, used to take the level out of its side without boxing again.
+     */
+    Long getPriceKey() {
+        return priceKey;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public boolean isEmpty() {
+        return orderCount == 0;
+    }
+
+    BookOrder head() {
+        return head;
+    }
+
+    void add(BookOrder order) {
+        order.link(this, tail, null);
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.setNext(order);
+        }
+        tail = order;
+        orderCount++;
+        totalSize += order.getRemainingSize();
+    }
+
+    boolean remove(BookOrder order) {
+        if (order.getLevel() != this) {
+            return false;
+        }
+        BookOrder prev = order.getPrev();
+        BookOrder next = order.getNext();
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.setNext(next);
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.setPrev(prev);
+        }
+        order.link(null, null, null);
+        orderCount--;
+        totalSize -= order.getRemainingSize();
+        return true;
+    }
+
+    void resize(BookOrder order, long newSize) {
+        totalSize += newSize - order.getRemainingSize();
+        order.setRemainingSize(newSize);
+    }
+}
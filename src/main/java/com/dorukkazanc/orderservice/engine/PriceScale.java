@@ -0,0 +1,88 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point price representation of one asset: a price is held as a {@code long} count of ticks of
+ * {@code 10^-scale}. Conversion from {@link BigDecimal} is exact or fails, and all arithmetic is
+ * overflow checked, so nothing on the matching path is ever truncated implicitly.
+ * <p>
+ * Cash balances are held in minor units of the settlement asset, {@code 10^-}{@value #CASH_SCALE}, which no
+ * price scale is finer than. Turning a notional (ticks x size) into cash is therefore an exact
+ * multiplication as well: a reservation is exactly what its fills will pay and no fill loses a fraction.
+ */
+public final class PriceScale {
+    /**
+     * Decimal places of the minor unit cash balances are kept in.
+     */
+    public static final int CASH_SCALE = 2;
+    private static final int MAX_SCALE = 18;
+    private static final PriceScale[] CACHE = new PriceScale[MAX_SCALE + 1];
+
+    static {
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            CACHE[scale] = new PriceScale(scale);
+        }
+    }
+
+    private final int scale;
+    private final long ticksPerUnit;
+    private final long cashPerTick;
+
+    private PriceScale(int scale) {
+        this.scale = scale;
+        this.ticksPerUnit = BigDecimal.ONE.movePointRight(scale).longValueExact();
+        this.cashPerTick = scale <= CASH_SCALE ? BigDecimal.ONE.movePointRight(CASH_SCALE - scale).longValueExact() : 0;
+    }
+
+    public static PriceScale of(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Price scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+        return CACHE[scale];
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public long getTicksPerUnit() {
+        return ticksPerUnit;
+    }
+
+    public long toTicks(BigDecimal price) {
+        try {
+            return price.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price.toPlainString()
+                    + " is not representable with " + scale + " decimal places", e);
+        }
+    }
+
+    public BigDecimal toPrice(long ticks) {
+        return BigDecimal.valueOf(ticks, scale);
+    }
+
+    public long notional(long priceTicks, long quantity) {
+        return Math.multiplyExact(priceTicks, quantity);
+    }
+
+    /**
+     * Cash in minor units for {@code quantity} at {@code priceTicks}, what a buy reserves and what a fill
+     * pays alike.
+     *
+     * @throws IllegalStateException if this scale is finer than cash is kept in
+     */
+    public long cash(long priceTicks, long quantity) {
+        if (cashPerTick == 0) {
+            throw new IllegalStateException("Price scale " + scale + " is finer than the cash scale " + CASH_SCALE);
+        }
+        return Math.multiplyExact(notional(priceTicks, quantity), cashPerTick);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceScale{" + scale + "}";
+    }
+}
@@ -0,0 +1,37 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tick scale per asset name, falling back to a default scale for assets without their own setting. No scale
+ * may be finer than the {@value #STORED_SCALE} decimal places the price columns keep, or a stored price would
+ * no longer be a whole number of ticks. The stored scale is also the {@link PriceScale#CASH_SCALE} cash is
+ * kept in, so every notional is a whole amount of cash.
+ */
+public class PriceScales {
+    /**
+     * Scale of the {@code price} columns of orders and orders_history.
+     */
+    public static final int STORED_SCALE = PriceScale.CASH_SCALE;
+
+    private final PriceScale defaultScale;
+    private final Map<String, PriceScale> scales = new HashMap<>();
+
+    public PriceScales(int defaultScale, Map<String, Integer> assetScales) {
+        this.defaultScale = stored("default", defaultScale);
+        assetScales.forEach((assetName, scale) -> scales.put(assetName, stored(assetName, scale)));
+    }
+
+    public PriceScale forAsset(String assetName) {
+        return scales.getOrDefault(assetName, defaultScale);
+    }
+
+    private static PriceScale stored(String assetName, int scale) {
+        if (scale > STORED_SCALE) {
+            throw new IllegalArgumentException("Price scale of " + assetName + " exceeds the " + STORED_SCALE
+                    + " decimal places prices are stored with: " + scale);
+        }
+        return PriceScale.of(scale);
+    }
+}
@@ -0,0 +1,6 @@
+package com.dorukkazanc.orderservice.engine;
+
+public enum ProducerType {
+    SINGLE,
+    MULTI
+}
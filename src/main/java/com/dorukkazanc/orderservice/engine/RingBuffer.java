@@ -0,0 +1,115 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of {@link EngineCommand} slots with one consumer, in the style of the LMAX
+ * Disruptor. Producers claim a sequence with {@link #next()}, fill the slot returned by {@link #get(long)}
+ * and make it visible with {@link #publish(long)}; a producer that laps the consumer waits for it.
+ * <p>
+ * In single-producer mode claiming is a plain increment and the cursor is the last published
+ * sequence, so only one thread may publish. In multi-producer mode the cursor is the last claimed
+ * sequence and each slot records the lap it was published in, so the consumer can tell where the
+ * contiguous published range ends.
+ */
+public class RingBuffer {
+    private final EngineCommand[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final boolean multiProducer;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong cursor = new AtomicLong(-1L);
+    private final AtomicLong consumerSequence = new AtomicLong(-1L);
+    private final AtomicIntegerArray publishedLaps;
+    private long nextValue = -1L;
+
+    public RingBuffer(int bufferSize, boolean multiProducer, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of 2: " + bufferSize);
+        }
+        this.entries = new EngineCommand[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = new EngineCommand();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.multiProducer = multiProducer;
+        this.waitStrategy = waitStrategy;
+        this.publishedLaps = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            publishedLaps.set(i, -1);
+        }
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    public long next() {
+        return multiProducer ? nextMulti() : nextSingle();
+    }
+
+    public EngineCommand get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        if (multiProducer) {
+            publishedLaps.set((int) sequence & mask, (int) (sequence >>> indexShift));
+        } else {
+            cursor.set(sequence);
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    AtomicLong getCursor() {
+        return cursor;
+    }
+
+    AtomicLong getConsumerSequence() {
+        return consumerSequence;
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Highest sequence in {@code [lowerBound, availableSequence]} up to which every slot is published.
+     */
+    long highestPublished(long lowerBound, long availableSequence) {
+        if (!multiProducer) {
+            return availableSequence;
+        }
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (publishedLaps.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    private long nextSingle() {
+        long next = nextValue + 1;
+        long wrapPoint = next - entries.length;
+        while (wrapPoint > consumerSequence.get()) {
+            LockSupport.parkNanos(1L);
+        }
+        nextValue = next;
+        return next;
+    }
+
+    private long nextMulti() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (next - entries.length > consumerSequence.get()) {
+                LockSupport.parkNanos(1L);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+}
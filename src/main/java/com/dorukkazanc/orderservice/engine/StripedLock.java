@@ -0,0 +1,33 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks shared by key hash. Work for one key is serialized while keys on different stripes
+ * proceed in parallel, without a lock object per key. Two keys may share a stripe, so a thread must only hold
+ * one stripe at a time.
+ */
+public class StripedLock {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLock(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of 2: " + stripes);
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = stripes - 1;
+    }
+
+    public ReentrantLock forKey(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return locks[(int) (hash ^ (hash >>> 32)) & mask];
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+}
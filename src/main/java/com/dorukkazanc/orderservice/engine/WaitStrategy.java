@@ -0,0 +1,18 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a shard thread waits for the next command to be published.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until {@code cursor} reaches {@code sequence} or {@code running} turns false, and returns the
+     * cursor value seen last.
+     */
+    long waitFor(long sequence, AtomicLong cursor, BooleanSupplier running) throws InterruptedException;
+
+    void signalAllWhenBlocking();
+}
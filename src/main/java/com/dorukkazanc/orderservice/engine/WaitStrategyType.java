@@ -0,0 +1,15 @@
+package com.dorukkazanc.orderservice.engine;
+
+public enum WaitStrategyType {
+    BUSY_SPIN,
+    YIELDING,
+    BLOCKING;
+
+    public WaitStrategy newInstance() {
+        return switch (this) {
+            case BUSY_SPIN -> new BusySpinWaitStrategy();
+            case YIELDING -> new YieldingWaitStrategy();
+            case BLOCKING -> new BlockingWaitStrategy();
+        };
+    }
+}
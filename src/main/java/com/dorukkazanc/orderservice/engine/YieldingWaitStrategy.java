@@ -0,0 +1,31 @@
+package com.dorukkazanc.orderservice.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for a short while and then yields the thread between checks, trading a little latency for
+ * leaving the core to other threads when idle.
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long sequence, AtomicLong cursor, BooleanSupplier running) {
+        int counter = SPIN_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
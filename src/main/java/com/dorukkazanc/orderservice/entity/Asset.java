@@ -9,6 +9,7 @@ package com.dorukkazanc.orderservice.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,11 +22,14 @@ import lombok.experimental.SuperBuilder;
 @Data
 @Table(name = "assets")
 public class Asset extends AuditableEntity{
-    @Column(name = "customer_id")
-    private String customerId;
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
     @Column(name = "asset_name")
     private String assetName;
     private Long size;
     @Column(name = "usable_size")
     private Long usableSize;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
 }
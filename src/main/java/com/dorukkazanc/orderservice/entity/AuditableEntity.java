@@ -25,8 +25,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public abstract class AuditableEntity {
+    /**
+     * Taken from a per-table sequence ({@code <table>_seq}) in blocks of 50, so ids are known at persist
+     * time and inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreatedDate
@@ -26,8 +26,8 @@ import java.time.LocalDateTime;
 @Data
 @EqualsAndHashCode(callSuper = false)
 public class Order extends AuditableEntity {
-    @Column(name= "customer_id")
-    private String customerId;
+    @Column(name= "customer_id", nullable = false)
+    private Long customerId;
     @Column(name= "asset_name")
     private String assetName;
     @Column(name= "order_side")
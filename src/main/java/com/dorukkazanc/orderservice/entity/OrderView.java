@@ -0,0 +1,39 @@
+package com.dorukkazanc.orderservice.entity;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view over live and archived orders, with the same field names as {@link Order} so searches built
+ * for one run unchanged against the other. {@code archivedDate} is null for orders still in the live table.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_all")
+@NoArgsConstructor
+@Data
+public class OrderView {
+    @Id
+    private Long id;
+    @Column(name= "customer_id")
+    private Long customerId;
+    @Column(name= "asset_name")
+    private String assetName;
+    @Column(name= "order_side")
+    @Enumerated(EnumType.STRING)
+    private OrderSide orderSide;
+    private Long size;
+    private BigDecimal price;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+    private LocalDateTime archivedDate;
+}
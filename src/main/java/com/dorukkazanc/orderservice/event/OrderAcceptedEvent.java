@@ -0,0 +1,7 @@
+package com.dorukkazanc.orderservice.event;
+
+/**
+ * Published when an order has been validated, reserved and saved, so it can be handed to matching.
+ */
+public record OrderAcceptedEvent(Long orderId, String assetName) {
+}
@@ -0,0 +1,17 @@
+package com.dorukkazanc.orderservice.event;
+
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Published by a match pass or an auction uncross that traded, with one execution per order side of every
+ * fill, so the owners can be told once the transaction commits.
+ */
+public record OrderExecutedEvent(String assetName, List<Execution> executions) {
+
+    public record Execution(long orderId, long customerId, OrderStatus status, long quantity, BigDecimal price,
+                            long remainingSize, BigDecimal limitPrice) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.dorukkazanc.orderservice.event;
+
+import java.util.List;
+
+/**
+ * Published when pending orders have been canceled, by the customer or by a mass cancel.
+ */
+public record OrdersCanceledEvent(List<Long> orderIds) {
+}
@@ -0,0 +1,12 @@
+package com.dorukkazanc.orderservice.exception;
+
+public class CustomerInUseException extends RuntimeException {
+
+    public CustomerInUseException(String message) {
+        super(message);
+    }
+
+    public CustomerInUseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -25,6 +25,14 @@ public class GlobalExceptionHandler {
                 .body(BaseResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(CustomerInUseException.class)
+    public ResponseEntity<BaseResponse<Void>> handleCustomerInUseException(CustomerInUseException ex) {
+        log.warn("Customer in use exception: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(BaseResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<BaseResponse<Void>> handleIllegalArgumentException(IllegalArgumentException ex) {
         log.warn("Illegal argument exception: {}", ex.getMessage());
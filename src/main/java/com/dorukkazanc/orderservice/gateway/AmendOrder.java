@@ -0,0 +1,29 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Changes the size and/or the price of a pending order of the logged-on customer. A zero size or price
+ * leaves that field unchanged.
+ */
+public record AmendOrder(long clientOrderId, long orderId, long size, BigDecimal price) implements GatewayMessage {
+    static final int SIZE = Long.BYTES * 3 + GatewayCodec.decimalSize();
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.AMEND_ORDER;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(clientOrderId);
+        buffer.putLong(orderId);
+        buffer.putLong(size);
+        GatewayCodec.putDecimal(buffer, price);
+    }
+
+    static AmendOrder decode(ByteBuffer buffer) {
+        return new AmendOrder(buffer.getLong(), buffer.getLong(), buffer.getLong(), GatewayCodec.getDecimal(buffer));
+    }
+}
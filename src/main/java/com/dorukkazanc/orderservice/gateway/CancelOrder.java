@@ -0,0 +1,25 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cancels a pending order of the logged-on customer.
+ */
+public record CancelOrder(long clientOrderId, long orderId) implements GatewayMessage {
+    static final int SIZE = Long.BYTES * 2;
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.CANCEL_ORDER;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(clientOrderId);
+        buffer.putLong(orderId);
+    }
+
+    static CancelOrder decode(ByteBuffer buffer) {
+        return new CancelOrder(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,57 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * State of an order after a request on it was carried out or after it traded. The last quantity and last
+ * price are the size and price of the fill for a {@link ExecType#TRADE} and zero otherwise; the leaves
+ * quantity is the size still open and the price the order's limit.
+ */
+public record ExecutionReport(long clientOrderId, long orderId, ExecType execType, OrderStatus status,
+                              long lastQuantity, BigDecimal lastPrice, long leavesQuantity,
+                              BigDecimal price) implements GatewayMessage {
+    static final int SIZE = Long.BYTES * 2 + Byte.BYTES * 2 + Long.BYTES * 2 + GatewayCodec.decimalSize() * 2;
+
+    public enum ExecType {
+        NEW,
+        TRADE,
+        CANCELED,
+        REPLACED
+    }
+
+    public ExecutionReport withClientOrderId(long clientOrderId) {
+        return new ExecutionReport(clientOrderId, orderId, execType, status, lastQuantity, lastPrice, leavesQuantity, price);
+    }
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.EXECUTION_REPORT;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(clientOrderId);
+        buffer.putLong(orderId);
+        GatewayCodec.putEnum(buffer, execType);
+        GatewayCodec.putEnum(buffer, status);
+        buffer.putLong(lastQuantity);
+        GatewayCodec.putDecimal(buffer, lastPrice);
+        buffer.putLong(leavesQuantity);
+        GatewayCodec.putDecimal(buffer, price);
+    }
+
+    static ExecutionReport decode(ByteBuffer buffer) {
+        return new ExecutionReport(
+                buffer.getLong(),
+                buffer.getLong(),
+                GatewayCodec.getEnum(buffer, ExecType.values()),
+                GatewayCodec.getEnum(buffer, OrderStatus.values()),
+                buffer.getLong(),
+                GatewayCodec.getDecimal(buffer),
+                buffer.getLong(),
+                GatewayCodec.getDecimal(buffer));
+    }
+}
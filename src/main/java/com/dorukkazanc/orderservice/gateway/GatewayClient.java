@@ -0,0 +1,104 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client for the order entry gateway. Requests are sent as soon as they are made and replies are
+ * read with {@link #receive()}, so a client can keep several requests in flight; client order ids are
+ * assigned in sequence. Not thread-safe.
+ */
+public class GatewayClient implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long nextClientOrderId = 1;
+
+    public GatewayClient(InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        readBuffer.flip();
+    }
+
+    /**
+     * Logs the session on and returns the id of its customer.
+     *
+     * @throws IllegalStateException if the gateway rejected the logon
+     */
+    public long logon(String username, String password) throws IOException {
+        send(new Logon(username, password));
+        GatewayMessage reply = receive();
+        if (reply instanceof LogonAccepted accepted) {
+            return accepted.customerId();
+        }
+        if (reply instanceof Reject reject) {
+            throw new IllegalStateException("Logon rejected: " + reject.reason());
+        }
+        throw new IllegalStateException("Unexpected reply to logon: " + reply);
+    }
+
+    /**
+     * Sends a new order and returns its client order id.
+     */
+    public long newOrder(String assetName, OrderSide orderSide, long size, BigDecimal price) throws IOException {
+        long clientOrderId = nextClientOrderId++;
+        send(new NewOrder(clientOrderId, assetName, orderSide, size, price));
+        return clientOrderId;
+    }
+
+    public long cancel(long orderId) throws IOException {
+        long clientOrderId = nextClientOrderId++;
+        send(new CancelOrder(clientOrderId, orderId));
+        return clientOrderId;
+    }
+
+    /**
+     * Sends an amend; a zero size or a null price leaves that field unchanged.
+     */
+    public long amend(long orderId, long size, BigDecimal price) throws IOException {
+        long clientOrderId = nextClientOrderId++;
+        send(new AmendOrder(clientOrderId, orderId, size, price));
+        return clientOrderId;
+    }
+
+    public void send(GatewayMessage message) throws IOException {
+        writeBuffer.clear();
+        GatewayCodec.encode(writeBuffer, message);
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+    }
+
+    /**
+     * Blocks until the next message from the gateway has arrived.
+     *
+     * @throws EOFException if the gateway closed the session
+     */
+    public GatewayMessage receive() throws IOException {
+        GatewayMessage message;
+        while ((message = GatewayCodec.decode(readBuffer)) == null) {
+            readBuffer.compact();
+            int read = channel.read(readBuffer);
+            readBuffer.flip();
+            if (read < 0) {
+                throw new EOFException("Gateway closed the session");
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,122 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.engine.PriceScales;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Framing and field encodings of the gateway protocol, all big-endian. A frame is a two byte length covering
+ * the type and body, a one byte type code and the fixed-layout body of that type. Text fields are UTF-8
+ * padded with zeros to their width, decimals an unscaled long plus its scale, at most
+ * {@link PriceScales#STORED_SCALE}, and enums their ordinal.
+ */
+public final class GatewayCodec {
+    public static final int HEADER = Short.BYTES + Byte.BYTES;
+
+    private GatewayCodec() {
+    }
+
+    public static int frameSize(GatewayMessageType type) {
+        return HEADER + type.getBodySize();
+    }
+
+    public static void encode(ByteBuffer buffer, GatewayMessage message) {
+        GatewayMessageType type = message.type();
+        buffer.putShort((short) (Byte.BYTES + type.getBodySize()));
+        buffer.put(type.getCode());
+        int start = buffer.position();
+        message.encode(buffer);
+        if (buffer.position() - start != type.getBodySize()) {
+            throw new IllegalStateException("Encoded " + type + " body does not match its layout");
+        }
+    }
+
+    /**
+     * Decodes the next frame of a buffer in read mode, or returns null and leaves the position unchanged
+     * if the frame is not complete yet.
+     *
+     * @throws IllegalStateException if the frame is malformed, after which the stream cannot be resynchronized
+     */
+    public static GatewayMessage decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = Short.toUnsignedInt(buffer.getShort(start));
+        GatewayMessageType type = GatewayMessageType.fromCode(buffer.get(start + Short.BYTES));
+        if (length != Byte.BYTES + type.getBodySize()) {
+            throw new IllegalStateException("Invalid length " + length + " for gateway message " + type);
+        }
+        if (buffer.remaining() < Short.BYTES + length) {
+            return null;
+        }
+        buffer.position(start + HEADER);
+        return type.decode(buffer);
+    }
+
+    static void putText(ByteBuffer buffer, String value, int width) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width) {
+            throw new IllegalArgumentException("Text does not fit in " + width + " bytes: " + value);
+        }
+        buffer.put(bytes);
+        buffer.put(new byte[width - bytes.length]);
+    }
+
+    /**
+     * Like {@link #putText} but cuts the value to the width, for free-form text such as reject reasons.
+     */
+    static void putTruncatedText(ByteBuffer buffer, String value, int width) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        putText(buffer, new String(bytes, 0, Math.min(bytes.length, width), StandardCharsets.UTF_8), width);
+    }
+
+    static String getText(ByteBuffer buffer, int width) {
+        byte[] bytes = new byte[width];
+        buffer.get(bytes);
+        int length = width;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return new String(Arrays.copyOf(bytes, length), StandardCharsets.UTF_8);
+    }
+
+    static int decimalSize() {
+        return Long.BYTES + Byte.BYTES;
+    }
+
+    static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        if (value == null) {
+            buffer.putLong(0);
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.putLong(value.unscaledValue().longValueExact());
+        buffer.put((byte) value.scale());
+    }
+
+    static BigDecimal getDecimal(ByteBuffer buffer) {
+        long unscaled = buffer.getLong();
+        byte scale = buffer.get();
+        if (scale < 0 || scale > PriceScales.STORED_SCALE) {
+            throw new IllegalStateException("Invalid decimal scale " + scale);
+        }
+        return new BigDecimal(BigInteger.valueOf(unscaled), scale);
+    }
+
+    static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put(value == null ? -1 : (byte) value.ordinal());
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        byte ordinal = buffer.get();
+        if (ordinal >= values.length) {
+            throw new IllegalStateException("Invalid ordinal " + ordinal + " for " + values.getClass().getComponentType().getSimpleName());
+        }
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
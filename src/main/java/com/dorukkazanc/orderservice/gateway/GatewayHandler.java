@@ -0,0 +1,20 @@
+package com.dorukkazanc.orderservice.gateway;
+
+/**
+ * Carries out the requests of gateway sessions. Calls for one session are made one at a time, in the order
+ * the requests arrived, on a gateway worker thread, so implementations may block. A runtime exception is
+ * sent back to the client as a {@link Reject} with its message.
+ */
+public interface GatewayHandler {
+
+    /**
+     * Authenticates a session and returns the id of its customer.
+     */
+    long logon(String username, String password);
+
+    ExecutionReport newOrder(long customerId, NewOrder order);
+
+    ExecutionReport cancel(long customerId, CancelOrder cancel);
+
+    ExecutionReport amend(long customerId, AmendOrder amend);
+}
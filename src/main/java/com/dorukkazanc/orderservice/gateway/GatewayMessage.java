@@ -0,0 +1,13 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Body of a gateway frame. Implementations write exactly {@link GatewayMessageType#getBodySize()} bytes.
+ */
+public interface GatewayMessage {
+
+    GatewayMessageType type();
+
+    void encode(ByteBuffer buffer);
+}
@@ -0,0 +1,57 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Kind of message on the gateway wire. Every type has a fixed body size, so a frame is complete as soon as
+ * that many bytes follow its header. The code is part of the protocol and must never be reused for a
+ * different type.
+ */
+public enum GatewayMessageType {
+    LOGON(1, Logon.SIZE, Logon::decode),
+    NEW_ORDER(2, NewOrder.SIZE, NewOrder::decode),
+    CANCEL_ORDER(3, CancelOrder.SIZE, CancelOrder::decode),
+    AMEND_ORDER(4, AmendOrder.SIZE, AmendOrder::decode),
+    LOGON_ACCEPTED(10, LogonAccepted.SIZE, LogonAccepted::decode),
+    EXECUTION_REPORT(11, ExecutionReport.SIZE, ExecutionReport::decode),
+    REJECT(12, Reject.SIZE, Reject::decode);
+
+    private static final GatewayMessageType[] BY_CODE = new GatewayMessageType[16];
+
+    static {
+        for (GatewayMessageType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+    private final int bodySize;
+    private final Function<ByteBuffer, GatewayMessage> decoder;
+
+    GatewayMessageType(int code, int bodySize, Function<ByteBuffer, GatewayMessage> decoder) {
+        this.code = (byte) code;
+        this.bodySize = bodySize;
+        this.decoder = decoder;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public int getBodySize() {
+        return bodySize;
+    }
+
+    GatewayMessage decode(ByteBuffer buffer) {
+        return decoder.apply(buffer);
+    }
+
+    static GatewayMessageType fromCode(byte code) {
+        GatewayMessageType type = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalStateException("Unknown gateway message type: " + code);
+        }
+        return type;
+    }
+}
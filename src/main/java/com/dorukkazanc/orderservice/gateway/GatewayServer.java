@@ -0,0 +1,427 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP order entry speaking the fixed-layout binary protocol of {@link GatewayCodec}, for clients that want
+ * to skip HTTP and JSON. One selector thread accepts connections, reads and decodes frames and writes
+ * replies; the requests themselves are carried out by the {@link GatewayHandler} on a worker pool, one at
+ * a time per session, since entering an order blocks on the database and the matching engine. A session
+ * may have at most {@code maxInFlight} requests waiting for their reply; beyond that the selector stops
+ * reading from it, so a client pipelining faster than it is served is held back by TCP flow control.
+ * <p>
+ * A session has to log on once before anything else is accepted. Replies go back to the session that sent
+ * the request; trade reports published for a customer go to every session logged on as that customer,
+ * after any reply still being produced for it, so a fill is never reported before the order's acknowledgement.
+ */
+public class GatewayServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(GatewayServer.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Messages a session may have waiting to be written before it is dropped as a slow consumer.
+     */
+    private static final int MAX_QUEUED_MESSAGES = 100_000;
+
+    private final InetSocketAddress address;
+    private final GatewayHandler handler;
+    private final ExecutorService workers;
+    private final Map<Long, Set<GatewaySession>> sessionsByCustomer = new ConcurrentHashMap<>();
+    private final Queue<GatewaySession> pendingFlushes = new ConcurrentLinkedQueue<>();
+    private final Queue<GatewaySession> pendingResumes = new ConcurrentLinkedQueue<>();
+    private final int maxInFlight;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public GatewayServer(InetSocketAddress address, int workerThreads, int maxInFlight, GatewayHandler handler) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Gateway worker threads must be positive: " + workerThreads);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Gateway requests in flight must be positive: " + maxInFlight);
+        }
+        this.address = address;
+        this.maxInFlight = maxInFlight;
+        this.handler = handler;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "gateway-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(this::run, "gateway-selector");
+        selectorThread.start();
+        log.info("Order entry gateway listening on {}", serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Port the gateway is bound to, which differs from the configured one when that was 0.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Sends a report to every session logged on as the customer. The client order id is filled in for
+     * the sessions that entered the order.
+     */
+    public void publish(long customerId, ExecutionReport report) {
+        Set<GatewaySession> sessions = sessionsByCustomer.get(customerId);
+        if (sessions == null) {
+            return;
+        }
+        for (GatewaySession session : sessions) {
+            session.submit(() -> report(session, report), workers);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.shutdownNow();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                flushPending();
+                resumePending();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    GatewaySession session = (GatewaySession) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(session);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(session);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Closing gateway session of customer {}: {}", session.customerId(), e.getMessage());
+                        close(session);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("Order entry gateway stopped: {}", e.getMessage(), e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof GatewaySession session) {
+                    close(session);
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the order entry gateway: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new GatewaySession(channel, key, BUFFER_SIZE));
+    }
+
+    private void read(GatewaySession session) throws IOException {
+        if (session.channel().read(session.readBuffer()) < 0) {
+            close(session);
+            return;
+        }
+        decodeRequests(session);
+    }
+
+    /**
+     * Hands the complete frames in the read buffer to the workers until the session reaches its limit of
+     * requests in flight, and pauses it there. The rest stays in the buffer for when it is resumed.
+     */
+    private void decodeRequests(GatewaySession session) {
+        ByteBuffer buffer = session.readBuffer();
+        buffer.flip();
+        try {
+            while (true) {
+                if (session.inFlight() >= maxInFlight) {
+                    session.setPaused(true);
+                    // A request finishing before the pause was visible would not have resumed the session
+                    if (session.inFlight() >= maxInFlight) {
+                        break;
+                    }
+                    session.setPaused(false);
+                }
+                GatewayMessage message = GatewayCodec.decode(buffer);
+                if (message == null) {
+                    break;
+                }
+                session.requestStarted();
+                session.submit(() -> {
+                    try {
+                        process(session, message);
+                    } finally {
+                        requestFinished(session);
+                    }
+                }, workers);
+            }
+        } finally {
+            buffer.compact();
+        }
+        if (session.key().isValid()) {
+            setInterest(session, (session.key().interestOps() & SelectionKey.OP_WRITE) != 0);
+        }
+    }
+
+    private void requestFinished(GatewaySession session) {
+        if (session.requestFinished()) {
+            pendingResumes.add(session);
+            selector.wakeup();
+        }
+    }
+
+    private void resumePending() {
+        GatewaySession session;
+        while ((session = pendingResumes.poll()) != null) {
+            if (session.isClosed() || !session.isPaused() || session.inFlight() >= maxInFlight) {
+                continue;
+            }
+            session.setPaused(false);
+            try {
+                decodeRequests(session);
+            } catch (RuntimeException e) {
+                log.warn("Closing gateway session of customer {}: {}", session.customerId(), e.getMessage());
+                close(session);
+            }
+        }
+    }
+
+    private void process(GatewaySession session, GatewayMessage message) {
+        if (session.isClosed()) {
+            return;
+        }
+        try {
+            if (message instanceof Logon logon) {
+                logon(session, logon);
+            } else if (!session.isLoggedOn()) {
+                send(session, reject(message, "Not logged on"));
+            } else if (message instanceof NewOrder newOrder) {
+                report(session, handler.newOrder(session.customerId(), newOrder));
+            } else if (message instanceof CancelOrder cancel) {
+                report(session, handler.cancel(session.customerId(), cancel));
+            } else if (message instanceof AmendOrder amend) {
+                report(session, handler.amend(session.customerId(), amend));
+            } else {
+                send(session, reject(message, "Unexpected message " + message.type()));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Gateway request {} of customer {} rejected: {}", message, session.customerId(), e.getMessage());
+            send(session, reject(message, e.getMessage()));
+        }
+    }
+
+    private void logon(GatewaySession session, Logon logon) {
+        if (session.isLoggedOn()) {
+            send(session, reject(logon, "Already logged on"));
+            return;
+        }
+        long customerId = handler.logon(logon.username(), logon.password());
+        session.loggedOn(customerId);
+        sessionsByCustomer.computeIfAbsent(customerId, ignored -> ConcurrentHashMap.newKeySet()).add(session);
+        if (session.isClosed()) {
+            unregister(session);
+            return;
+        }
+        log.info("Gateway session of customer {} logged on from {}", customerId, remoteAddress(session));
+        send(session, new LogonAccepted(customerId));
+    }
+
+    /**
+     * Sends a report, remembering the client order id of a new order until it is no longer open and
+     * filling it in on the reports that come without one.
+     */
+    private void report(GatewaySession session, ExecutionReport report) {
+        Map<Long, Long> clientOrderIds = session.clientOrderIds();
+        if (report.execType() == ExecutionReport.ExecType.NEW) {
+            clientOrderIds.put(report.orderId(), report.clientOrderId());
+        } else if (report.clientOrderId() == 0) {
+            Long clientOrderId = clientOrderIds.get(report.orderId());
+            if (clientOrderId != null) {
+                report = report.withClientOrderId(clientOrderId);
+            }
+        }
+        if (report.status() != OrderStatus.PENDING) {
+            clientOrderIds.remove(report.orderId());
+        }
+        send(session, report);
+    }
+
+    private void send(GatewaySession session, GatewayMessage message) {
+        if (session.isClosed()) {
+            return;
+        }
+        if (!session.offer(message, MAX_QUEUED_MESSAGES)) {
+            log.warn("Closing gateway session of customer {}, {} messages are waiting to be written",
+                    session.customerId(), MAX_QUEUED_MESSAGES);
+            close(session);
+            return;
+        }
+        if (session.scheduleFlush()) {
+            pendingFlushes.add(session);
+            selector.wakeup();
+        }
+    }
+
+    private void flushPending() {
+        GatewaySession session;
+        while ((session = pendingFlushes.poll()) != null) {
+            if (session.isClosed()) {
+                continue;
+            }
+            session.flushStarted();
+            try {
+                flush(session);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Closing gateway session of customer {}: {}", session.customerId(), e.getMessage());
+                close(session);
+            }
+        }
+    }
+
+    /**
+     * Encodes as many queued messages as fit into the write buffer and writes them in one go, until the
+     * queue is empty or the socket stops taking bytes, in which case the selector reports when it does.
+     */
+    private void flush(GatewaySession session) throws IOException {
+        ByteBuffer buffer = session.writeBuffer();
+        while (true) {
+            GatewayMessage message;
+            while ((message = session.peekOutbound()) != null
+                    && buffer.remaining() >= GatewayCodec.frameSize(message.type())) {
+                GatewayCodec.encode(buffer, session.pollOutbound());
+            }
+            buffer.flip();
+            session.channel().write(buffer);
+            boolean unwritten = buffer.hasRemaining();
+            buffer.compact();
+            if (unwritten) {
+                setInterest(session, true);
+                return;
+            }
+            if (!session.hasOutbound()) {
+                setInterest(session, false);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A paused session is not read from until it is resumed.
+     */
+    private void setInterest(GatewaySession session, boolean write) {
+        session.key().interestOps((session.isPaused() ? 0 : SelectionKey.OP_READ) | (write ? SelectionKey.OP_WRITE : 0));
+    }
+
+    private void close(GatewaySession session) {
+        if (!session.markClosed()) {
+            return;
+        }
+        unregister(session);
+        session.key().cancel();
+        try {
+            session.channel().close();
+        } catch (IOException e) {
+            log.debug("Failed to close gateway session: {}", e.getMessage());
+        }
+        if (session.isLoggedOn()) {
+            log.info("Gateway session of customer {} closed", session.customerId());
+        }
+    }
+
+    private void unregister(GatewaySession session) {
+        if (!session.isLoggedOn()) {
+            return;
+        }
+        sessionsByCustomer.computeIfPresent(session.customerId(), (customerId, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private Reject reject(GatewayMessage request, String reason) {
+        if (request instanceof NewOrder newOrder) {
+            return new Reject(newOrder.clientOrderId(), 0, reason);
+        }
+        if (request instanceof CancelOrder cancel) {
+            return new Reject(cancel.clientOrderId(), cancel.orderId(), reason);
+        }
+        if (request instanceof AmendOrder amend) {
+            return new Reject(amend.clientOrderId(), amend.orderId(), reason);
+        }
+        return new Reject(0, 0, reason);
+    }
+
+    private String remoteAddress(GatewaySession session) {
+        try {
+            return String.valueOf(session.channel().getRemoteAddress());
+        } catch (IOException e) {
+            return "an unknown address";
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One client connection. Its socket and buffers belong to the selector thread; requests run as a chain of
+ * tasks on the worker pool, each starting after the previous one finished, so a session's requests are
+ * carried out and answered in order. Outbound messages are queued by any thread and written by the
+ * selector thread. A session that has as many requests in flight as the server allows is paused: the
+ * selector stops reading from it until one of them has finished.
+ */
+final class GatewaySession {
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer writeBuffer;
+    private final Queue<GatewayMessage> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean paused = new AtomicBoolean();
+    /**
+     * Client order ids of the open orders this session entered, so trade reports can carry them. Only
+     * touched by the session's tasks.
+     */
+    private final Map<Long, Long> clientOrderIds = new HashMap<>();
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    private volatile long customerId;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    GatewaySession(SocketChannel channel, SelectionKey key, int bufferSize) {
+        this.channel = channel;
+        this.key = key;
+        this.readBuffer = ByteBuffer.allocateDirect(bufferSize);
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    SelectionKey key() {
+        return key;
+    }
+
+    ByteBuffer readBuffer() {
+        return readBuffer;
+    }
+
+    ByteBuffer writeBuffer() {
+        return writeBuffer;
+    }
+
+    Map<Long, Long> clientOrderIds() {
+        return clientOrderIds;
+    }
+
+    long customerId() {
+        return customerId;
+    }
+
+    void loggedOn(long customerId) {
+        this.customerId = customerId;
+    }
+
+    boolean isLoggedOn() {
+        return customerId != 0;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Returns true for the one caller that gets to close the session.
+     */
+    boolean markClosed() {
+        return closed.compareAndSet(false, true);
+    }
+
+    /**
+     * Runs a task after every task submitted before it, whether or not those failed.
+     */
+    synchronized void submit(Runnable task, Executor executor) {
+        tail = tail.handleAsync((ignored, failure) -> {
+            task.run();
+            return null;
+        }, executor);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Returns whether the session is paused and has to be handed back to the selector thread to resume
+     * reading.
+     */
+    boolean requestFinished() {
+        inFlight.decrementAndGet();
+        return paused.get();
+    }
+
+    boolean isPaused() {
+        return paused.get();
+    }
+
+    void setPaused(boolean paused) {
+        this.paused.set(paused);
+    }
+
+    /**
+     * Queues a message unless the limit of messages waiting to be written is reached.
+     */
+    boolean offer(GatewayMessage message, int limit) {
+        if (queued.incrementAndGet() > limit) {
+            queued.decrementAndGet();
+            return false;
+        }
+        outbound.add(message);
+        return true;
+    }
+
+    /**
+     * Returns whether the caller has to hand the session to the selector thread for writing, false if it
+     * already has been and the write has not started yet.
+     */
+    boolean scheduleFlush() {
+        return flushScheduled.compareAndSet(false, true);
+    }
+
+    GatewayMessage peekOutbound() {
+        return outbound.peek();
+    }
+
+    GatewayMessage pollOutbound() {
+        GatewayMessage message = outbound.poll();
+        if (message != null) {
+            queued.decrementAndGet();
+        }
+        return message;
+    }
+
+    boolean hasOutbound() {
+        return !outbound.isEmpty();
+    }
+
+    void flushStarted() {
+        flushScheduled.set(false);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * First message of a session; every other request is rejected until a logon has been accepted.
+ */
+public record Logon(String username, String password) implements GatewayMessage {
+    static final int TEXT_WIDTH = 32;
+    static final int SIZE = TEXT_WIDTH * 2;
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.LOGON;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        GatewayCodec.putText(buffer, username, TEXT_WIDTH);
+        GatewayCodec.putText(buffer, password, TEXT_WIDTH);
+    }
+
+    static Logon decode(ByteBuffer buffer) {
+        return new Logon(GatewayCodec.getText(buffer, TEXT_WIDTH), GatewayCodec.getText(buffer, TEXT_WIDTH));
+    }
+
+    @Override
+    public String toString() {
+        return "Logon[username=" + username + "]";
+    }
+}
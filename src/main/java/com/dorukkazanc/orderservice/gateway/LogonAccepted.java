@@ -0,0 +1,24 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reply to an accepted logon, carrying the id of the customer the session now trades for.
+ */
+public record LogonAccepted(long customerId) implements GatewayMessage {
+    static final int SIZE = Long.BYTES;
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.LOGON_ACCEPTED;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(customerId);
+    }
+
+    static LogonAccepted decode(ByteBuffer buffer) {
+        return new LogonAccepted(buffer.getLong());
+    }
+}
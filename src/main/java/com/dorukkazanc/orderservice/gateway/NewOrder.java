@@ -0,0 +1,38 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Enters a limit order. The client order id is chosen by the client and echoed on every report of the order.
+ */
+public record NewOrder(long clientOrderId, String assetName, OrderSide orderSide, long size,
+                       BigDecimal price) implements GatewayMessage {
+    static final int ASSET_WIDTH = 16;
+    static final int SIZE = Long.BYTES + ASSET_WIDTH + Byte.BYTES + Long.BYTES + GatewayCodec.decimalSize();
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.NEW_ORDER;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(clientOrderId);
+        GatewayCodec.putText(buffer, assetName, ASSET_WIDTH);
+        GatewayCodec.putEnum(buffer, orderSide);
+        buffer.putLong(size);
+        GatewayCodec.putDecimal(buffer, price);
+    }
+
+    static NewOrder decode(ByteBuffer buffer) {
+        return new NewOrder(
+                buffer.getLong(),
+                GatewayCodec.getText(buffer, ASSET_WIDTH),
+                GatewayCodec.getEnum(buffer, OrderSide.values()),
+                buffer.getLong(),
+                GatewayCodec.getDecimal(buffer));
+    }
+}
@@ -0,0 +1,27 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reply to a request that was not carried out, with the ids of the request and a reason cut to 64 bytes.
+ */
+public record Reject(long clientOrderId, long orderId, String reason) implements GatewayMessage {
+    static final int REASON_WIDTH = 64;
+    static final int SIZE = Long.BYTES * 2 + REASON_WIDTH;
+
+    @Override
+    public GatewayMessageType type() {
+        return GatewayMessageType.REJECT;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(clientOrderId);
+        buffer.putLong(orderId);
+        GatewayCodec.putTruncatedText(buffer, reason, REASON_WIDTH);
+    }
+
+    static Reject decode(ByteBuffer buffer) {
+        return new Reject(buffer.getLong(), buffer.getLong(), GatewayCodec.getText(buffer, REASON_WIDTH));
+    }
+}
@@ -0,0 +1,42 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Full state of a customer's asset after a reservation, a transfer or an admin update.
+ */
+public record AssetEntry(long id, long customerId, String assetName, long size, long usableSize,
+                         LocalDateTime createdDate, LocalDateTime lastModifiedDate) implements JournalEntry {
+
+    @Override
+    public int encodedSize() {
+        return Long.BYTES
+                + JournalCodec.customerIdSize(customerId)
+                + JournalCodec.stringSize(assetName)
+                + Long.BYTES * 2
+                + Long.BYTES * 2;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(id);
+        JournalCodec.putCustomerId(buffer, customerId);
+        JournalCodec.putString(buffer, assetName);
+        buffer.putLong(size);
+        buffer.putLong(usableSize);
+        JournalCodec.putTime(buffer, createdDate);
+        JournalCodec.putTime(buffer, lastModifiedDate);
+    }
+
+    static AssetEntry decode(ByteBuffer buffer) {
+        return new AssetEntry(
+                buffer.getLong(),
+                JournalCodec.getCustomerId(buffer),
+                JournalCodec.getString(buffer),
+                buffer.getLong(),
+                buffer.getLong(),
+                JournalCodec.getTime(buffer),
+                JournalCodec.getTime(buffer));
+    }
+}
@@ -0,0 +1,23 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Id of a row removed outright, as opposed to moved to a terminal status.
+ */
+public record DeletedEntry(long id) implements JournalEntry {
+
+    @Override
+    public int encodedSize() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(id);
+    }
+
+    static DeletedEntry decode(ByteBuffer buffer) {
+        return new DeletedEntry(buffer.getLong());
+    }
+}
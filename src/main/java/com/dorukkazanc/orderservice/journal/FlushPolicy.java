@@ -0,0 +1,19 @@
+package com.dorukkazanc.orderservice.journal;
+
+/**
+ * When appended journal records are forced from the mapped segment to the storage device.
+ */
+public enum FlushPolicy {
+    /**
+     * Force after every committed command, nothing acknowledged is lost on a crash.
+     */
+    PER_COMMAND,
+    /**
+     * Force once at the end of each engine batch, amortising the sync over every command drained together.
+     */
+    PER_BATCH,
+    /**
+     * Force on a fixed interval, a crash loses at most one interval of records.
+     */
+    TIMED
+}
@@ -0,0 +1,100 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Field encodings shared by the journal entries. Strings are a length-prefixed UTF-8 run, decimals an
+ * unscaled long plus its scale and timestamps UTC epoch nanos, with a sentinel standing in for null.
+ */
+final class JournalCodec {
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private JournalCodec() {
+    }
+
+    static int stringSize(String value) {
+        return Short.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Customer ids were strings before the customer key became numeric; they are still written as their
+     * decimal string so journals and snapshots taken before that read back unchanged.
+     */
+    static int customerIdSize(long customerId) {
+        return Short.BYTES + Long.toString(customerId).length();
+    }
+
+    static void putCustomerId(ByteBuffer buffer, long customerId) {
+        putString(buffer, Long.toString(customerId));
+    }
+
+    static long getCustomerId(ByteBuffer buffer) {
+        return Long.parseLong(getString(buffer));
+    }
+
+    static int decimalSize() {
+        return Long.BYTES + Byte.BYTES;
+    }
+
+    static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        buffer.putLong(value.unscaledValue().longValueExact());
+        buffer.put((byte) value.scale());
+    }
+
+    static BigDecimal getDecimal(ByteBuffer buffer) {
+        long unscaled = buffer.getLong();
+        return new BigDecimal(BigInteger.valueOf(unscaled), buffer.get());
+    }
+
+    static void putTime(ByteBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.putLong(NULL_TIME);
+            return;
+        }
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + value.getNano());
+    }
+
+    static LocalDateTime getTime(ByteBuffer buffer) {
+        long nanos = buffer.getLong();
+        if (nanos == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put(value == null ? -1 : (byte) value.ordinal());
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        byte ordinal = buffer.get();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,14 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Body of a journal record. Entries carry the absolute state after the change rather than a delta, so
+ * replaying a record twice leaves the same result as replaying it once.
+ */
+public interface JournalEntry {
+
+    int encodedSize();
+
+    void encode(ByteBuffer buffer);
+}
@@ -0,0 +1,83 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the journal back in sequence order. A damaged frame at the end of the last segment is the tail of
+ * a write interrupted by a crash and ends the replay; damage anywhere else means the journal cannot be
+ * trusted and fails it.
+ */
+public class JournalReader {
+    private final Path directory;
+    private final CRC32 crc = new CRC32();
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Hands every intact record with a sequence above {@code afterSequence} to the consumer and returns the
+     * highest sequence read, or {@code afterSequence} when there was nothing newer.
+     */
+    public long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        return replay(afterSequence, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Same as {@link #replay(long, Consumer)} but stops after the record with sequence {@code untilSequence}.
+     */
+    public long replay(long afterSequence, long untilSequence, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> segments = JournalSegments.list(directory);
+        long lastSequence = afterSequence;
+
+        for (int i = 0; i < segments.size(); i++) {
+            boolean lastSegment = i == segments.size() - 1;
+            if (!lastSegment && JournalSegments.firstSequence(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            if (JournalSegments.firstSequence(segments.get(i)) > untilSequence) {
+                break;
+            }
+            lastSequence = Math.max(lastSequence, replaySegment(segments.get(i), lastSegment, afterSequence, untilSequence, consumer));
+        }
+        return lastSequence;
+    }
+
+    private long replaySegment(Path path, boolean lastSegment, long afterSequence, long untilSequence,
+                               Consumer<JournalRecord> consumer) throws IOException {
+        long lastSequence = afterSequence;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int position = 0;
+            int payloadLength;
+            while ((payloadLength = JournalSegments.frameLength(segment, position, crc)) > 0) {
+                int payloadStart = position + JournalSegments.FRAME_HEADER;
+                long sequence = segment.getLong(payloadStart);
+                if (sequence > untilSequence) {
+                    return lastSequence;
+                }
+                if (sequence > afterSequence) {
+                    JournalRecordType type = JournalRecordType.fromCode(segment.get(payloadStart + Long.BYTES));
+                    JournalEntry entry = type.decode(segment.slice(payloadStart + JournalSegments.RECORD_HEADER,
+                            payloadLength - JournalSegments.RECORD_HEADER));
+                    consumer.accept(new JournalRecord(sequence, type, entry));
+                    lastSequence = sequence;
+                }
+                position = payloadStart + payloadLength;
+            }
+
+            if (payloadLength < 0 && !lastSegment) {
+                throw new IllegalStateException("Corrupt journal record at offset " + position + " of " + path.getFileName());
+            }
+        }
+        return lastSequence;
+    }
+}
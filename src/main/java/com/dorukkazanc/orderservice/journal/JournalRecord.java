@@ -0,0 +1,7 @@
+package com.dorukkazanc.orderservice.journal;
+
+/**
+ * A record read back from the journal. Sequences start at 1 and increase by one per record.
+ */
+public record JournalRecord(long sequence, JournalRecordType type, JournalEntry entry) {
+}
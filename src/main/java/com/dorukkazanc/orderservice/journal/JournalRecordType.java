@@ -0,0 +1,53 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Kind of state change a journal record describes. The code is part of the on-disk format and must never be
+ * reused for a different type.
+ */
+public enum JournalRecordType {
+    ORDER_ACCEPTED(1, OrderEntry::decode),
+    ORDER_AMENDED(2, OrderEntry::decode),
+    ORDER_EXECUTED(3, OrderEntry::decode),
+    ORDER_CANCELED(4, OrderEntry::decode),
+    ORDER_DELETED(5, DeletedEntry::decode),
+    ASSET_RESERVED(6, AssetEntry::decode),
+    ASSET_TRANSFERRED(7, AssetEntry::decode),
+    ASSET_UPDATED(8, AssetEntry::decode),
+    ASSET_DELETED(9, DeletedEntry::decode),
+    ASSET_RELEASED(10, AssetEntry::decode);
+
+    private static final JournalRecordType[] BY_CODE = new JournalRecordType[16];
+
+    static {
+        for (JournalRecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+    private final Function<ByteBuffer, JournalEntry> decoder;
+
+    JournalRecordType(int code, Function<ByteBuffer, JournalEntry> decoder) {
+        this.code = (byte) code;
+        this.decoder = decoder;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    JournalEntry decode(ByteBuffer buffer) {
+        return decoder.apply(buffer);
+    }
+
+    static JournalRecordType fromCode(byte code) {
+        JournalRecordType type = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalStateException("Unknown journal record type: " + code);
+        }
+        return type;
+    }
+}
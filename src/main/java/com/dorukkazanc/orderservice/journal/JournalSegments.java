@@ -0,0 +1,75 @@
+package com.dorukkazanc.orderservice.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk layout of the journal. A journal is a directory of fixed-size segment files named after the
+ * sequence of their first record. Each record is framed as
+ * <pre>
+ *   int payloadLength | int crc32(payload) | long sequence | byte type | entry
+ * </pre>
+ * where the payload is everything after the CRC. Segments are zero-filled when created, so a zero length
+ * marks the end of the written part of a segment.
+ */
+final class JournalSegments {
+    static final int FRAME_HEADER = Integer.BYTES * 2;
+    static final int RECORD_HEADER = Long.BYTES + Byte.BYTES;
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".seg";
+
+    private JournalSegments() {
+    }
+
+    static Path path(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Segments of the journal in record order.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(JournalSegments::firstSequence));
+        return segments;
+    }
+
+    /**
+     * Payload length of the frame at {@code position}, 0 when nothing was written there and -1 when the frame
+     * is cut short or fails its checksum.
+     */
+    static int frameLength(ByteBuffer segment, int position, CRC32 crc) {
+        if (position + FRAME_HEADER > segment.limit()) {
+            return 0;
+        }
+        int payloadLength = segment.getInt(position);
+        if (payloadLength == 0) {
+            return 0;
+        }
+        if (payloadLength < RECORD_HEADER || payloadLength > segment.limit() - position - FRAME_HEADER) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(segment.slice(position + FRAME_HEADER, payloadLength));
+        return (int) crc.getValue() == segment.getInt(position + Integer.BYTES) ? payloadLength : -1;
+    }
+}
@@ -0,0 +1,218 @@
+package com.dorukkazanc.orderservice.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Appends records to the journal through a memory-mapped segment. An append is a sequential copy into the
+ * mapping; when the record no longer fits the segment is forced and the next one is created. When the
+ * mapping is forced to disk is decided by the {@link FlushPolicy}.
+ * <p>
+ * On open the last segment is scanned to find the end of its intact records; anything after that, a frame
+ * torn by a crash, is wiped and overwritten by the next append.
+ */
+public class JournalWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JournalWriter.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FlushPolicy flushPolicy;
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService flusher;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+    private boolean dirty;
+
+    public JournalWriter(Path directory, int segmentSize, FlushPolicy flushPolicy, Duration flushInterval) throws IOException {
+        if (segmentSize < JournalSegments.FRAME_HEADER + JournalSegments.RECORD_HEADER) {
+            throw new IllegalArgumentException("Journal segment size is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushPolicy = flushPolicy;
+
+        Files.createDirectories(directory);
+        List<Path> segments = JournalSegments.list(directory);
+        if (segments.isEmpty()) {
+            openSegment(JournalSegments.path(directory, nextSequence));
+        } else {
+            recover(segments.get(segments.size() - 1));
+        }
+
+        if (flushPolicy == FlushPolicy.TIMED) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleAtFixedRate(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Writes one record and returns its sequence. The record is visible to readers of the mapping right
+     * away but only durable once the segment is forced.
+     */
+    public synchronized long append(JournalRecordType type, JournalEntry entry) {
+        int payloadLength = JournalSegments.RECORD_HEADER + entry.encodedSize();
+        int frameLength = JournalSegments.FRAME_HEADER + payloadLength;
+        if (frameLength > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + frameLength + " bytes exceeds the segment size");
+        }
+        if (segment.remaining() < frameLength) {
+            roll();
+        }
+
+        int start = segment.position();
+        long sequence = nextSequence;
+        try {
+            segment.position(start + JournalSegments.FRAME_HEADER);
+            segment.putLong(sequence);
+            segment.put(type.getCode());
+            entry.encode(segment);
+            if (segment.position() != start + frameLength) {
+                throw new IllegalStateException("Journal entry " + type + " wrote a different size than it declared");
+            }
+        } catch (RuntimeException e) {
+            segment.position(start);
+            throw e;
+        }
+
+        crc.reset();
+        crc.update(segment.slice(start + JournalSegments.FRAME_HEADER, payloadLength));
+        segment.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // The length goes in last, until then the frame reads as unwritten
+        segment.putInt(start, payloadLength);
+
+        nextSequence++;
+        dirty = true;
+        return sequence;
+    }
+
+    /**
+     * Marks the end of the records written for one command.
+     */
+    public void endOfCommand() {
+        if (flushPolicy == FlushPolicy.PER_COMMAND) {
+            flush();
+        }
+    }
+
+    /**
+     * Marks the end of an engine batch.
+     */
+    public void endOfBatch() {
+        if (flushPolicy == FlushPolicy.PER_BATCH) {
+            flush();
+        }
+    }
+
+    /**
+     * Forces everything appended so far to the storage device.
+     */
+    public synchronized void flush() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Sequence the next appended record will get.
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Deletes the segments that hold nothing but records up to {@code sequence}, once snapshots cover them.
+     * The segment being written is always kept.
+     *
+     * @return the number of segments deleted
+     */
+    public synchronized int deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Path> segments = JournalSegments.list(directory);
+        int deleted = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (JournalSegments.firstSequence(segments.get(i + 1)) > sequence + 1) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public FlushPolicy getFlushPolicy() {
+        return flushPolicy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+        channel.close();
+    }
+
+    private void roll() {
+        flush();
+        try {
+            channel.close();
+            openSegment(JournalSegments.path(directory, nextSequence));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment in " + directory, e);
+        }
+    }
+
+    private void openSegment(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+        log.info("Journal segment {} opened", path.getFileName());
+    }
+
+    private void recover(Path path) throws IOException {
+        openSegment(path);
+        nextSequence = JournalSegments.firstSequence(path);
+
+        int position = 0;
+        int payloadLength;
+        while ((payloadLength = JournalSegments.frameLength(segment, position, crc)) > 0) {
+            nextSequence = segment.getLong(position + JournalSegments.FRAME_HEADER) + 1;
+            position += JournalSegments.FRAME_HEADER + payloadLength;
+        }
+
+        if (payloadLength < 0) {
+            log.warn("Discarding torn journal record at offset {} of {}", position, path.getFileName());
+            for (int i = position; i < segment.limit(); i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        segment.position(position);
+    }
+}
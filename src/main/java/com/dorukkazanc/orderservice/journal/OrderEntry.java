@@ -0,0 +1,54 @@
+package com.dorukkazanc.orderservice.journal;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Full state of an order after it was accepted, amended, executed against or canceled.
+ */
+public record OrderEntry(long id, long customerId, String assetName, OrderSide orderSide, long size,
+                         BigDecimal price, OrderStatus status, LocalDateTime createdDate,
+                         LocalDateTime lastModifiedDate) implements JournalEntry {
+
+    @Override
+    public int encodedSize() {
+        return Long.BYTES
+                + JournalCodec.customerIdSize(customerId)
+                + JournalCodec.stringSize(assetName)
+                + Byte.BYTES
+                + Long.BYTES
+                + JournalCodec.decimalSize()
+                + Byte.BYTES
+                + Long.BYTES * 2;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer) {
+        buffer.putLong(id);
+        JournalCodec.putCustomerId(buffer, customerId);
+        JournalCodec.putString(buffer, assetName);
+        JournalCodec.putEnum(buffer, orderSide);
+        buffer.putLong(size);
+        JournalCodec.putDecimal(buffer, price);
+        JournalCodec.putEnum(buffer, status);
+        JournalCodec.putTime(buffer, createdDate);
+        JournalCodec.putTime(buffer, lastModifiedDate);
+    }
+
+    static OrderEntry decode(ByteBuffer buffer) {
+        return new OrderEntry(
+                buffer.getLong(),
+                JournalCodec.getCustomerId(buffer),
+                JournalCodec.getString(buffer),
+                JournalCodec.getEnum(buffer, OrderSide.values()),
+                buffer.getLong(),
+                JournalCodec.getDecimal(buffer),
+                JournalCodec.getEnum(buffer, OrderStatus.values()),
+                JournalCodec.getTime(buffer),
+                JournalCodec.getTime(buffer));
+    }
+}
@@ -0,0 +1,88 @@
+package com.dorukkazanc.orderservice.journal;
+
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compacted form of the journal up to {@link #getSequence()}: the open orders that make up the books, the
+ * latest balance of every asset the journal touched and the ids of deleted assets, which would otherwise
+ * come back with the seed data. Filled and canceled orders are history and are not kept.
+ */
+public class SnapshotState {
+    private final Map<Long, OrderEntry> openOrders;
+    private final Map<Long, AssetEntry> assets;
+    private final Set<Long> deletedAssetIds;
+    private long sequence;
+    private long maxOrderId;
+    private long maxAssetId;
+
+    public SnapshotState() {
+        this(0, 0, 0, new HashMap<>(), new HashMap<>(), new HashSet<>());
+    }
+
+    SnapshotState(long sequence, long maxOrderId, long maxAssetId, Map<Long, OrderEntry> openOrders,
+                  Map<Long, AssetEntry> assets, Set<Long> deletedAssetIds) {
+        this.sequence = sequence;
+        this.maxOrderId = maxOrderId;
+        this.maxAssetId = maxAssetId;
+        this.openOrders = openOrders;
+        this.assets = assets;
+        this.deletedAssetIds = deletedAssetIds;
+    }
+
+    public void apply(JournalRecord record) {
+        switch (record.type()) {
+            case ORDER_ACCEPTED, ORDER_AMENDED, ORDER_EXECUTED, ORDER_CANCELED -> {
+                OrderEntry order = (OrderEntry) record.entry();
+                maxOrderId = Math.max(maxOrderId, order.id());
+                if (order.status() == OrderStatus.PENDING && order.size() > 0) {
+                    openOrders.put(order.id(), order);
+                } else {
+                    openOrders.remove(order.id());
+                }
+            }
+            case ORDER_DELETED -> openOrders.remove(((DeletedEntry) record.entry()).id());
+            case ASSET_RESERVED, ASSET_RELEASED, ASSET_TRANSFERRED, ASSET_UPDATED -> {
+                AssetEntry asset = (AssetEntry) record.entry();
+                maxAssetId = Math.max(maxAssetId, asset.id());
+                assets.put(asset.id(), asset);
+                deletedAssetIds.remove(asset.id());
+            }
+            case ASSET_DELETED -> {
+                long assetId = ((DeletedEntry) record.entry()).id();
+                assets.remove(assetId);
+                deletedAssetIds.add(assetId);
+            }
+        }
+        sequence = record.sequence();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getMaxOrderId() {
+        return maxOrderId;
+    }
+
+    public long getMaxAssetId() {
+        return maxAssetId;
+    }
+
+    public Collection<OrderEntry> getOpenOrders() {
+        return openOrders.values();
+    }
+
+    public Collection<AssetEntry> getAssets() {
+        return assets.values();
+    }
+
+    public Collection<Long> getDeletedAssetIds() {
+        return deletedAssetIds;
+    }
+}
@@ -0,0 +1,176 @@
+package com.dorukkazanc.orderservice.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot files of a {@link SnapshotState}, named after the journal sequence they cover. Layout:
+ * <pre>
+ *   int magic | int version | long sequence | long maxOrderId | long maxAssetId
+ *   int count | OrderEntry...  int count | AssetEntry...  int count | long deletedAssetId...
+ *   int crc32(everything before)
+ * </pre>
+ * A snapshot is written to a temporary file and moved into place, so a crash never leaves a partial file
+ * under a snapshot name. Only the newest {@code retained} snapshots are kept.
+ */
+public class SnapshotStore {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final int MAGIC = 0x4F534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER = Integer.BYTES * 2 + Long.BYTES * 3;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int retained;
+
+    public SnapshotStore(Path directory, int retained) {
+        this.directory = directory;
+        this.retained = Math.max(1, retained);
+    }
+
+    public Path write(SnapshotState state) throws IOException {
+        int size = HEADER + Integer.BYTES * 3 + Long.BYTES * state.getDeletedAssetIds().size() + Integer.BYTES;
+        for (OrderEntry order : state.getOpenOrders()) {
+            size += order.encodedSize();
+        }
+        for (AssetEntry asset : state.getAssets()) {
+            size += asset.encodedSize();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(state.getSequence());
+        buffer.putLong(state.getMaxOrderId());
+        buffer.putLong(state.getMaxAssetId());
+        buffer.putInt(state.getOpenOrders().size());
+        state.getOpenOrders().forEach(order -> order.encode(buffer));
+        buffer.putInt(state.getAssets().size());
+        state.getAssets().forEach(asset -> asset.encode(buffer));
+        buffer.putInt(state.getDeletedAssetIds().size());
+        state.getDeletedAssetIds().forEach(buffer::putLong);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, state.getSequence(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> snapshots = list();
+        for (int i = 0; i < snapshots.size() - retained; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return target;
+    }
+
+    /**
+     * Sequence of the oldest snapshot kept, 0 when there is none. Startup may fall back as far as this one, so
+     * the journal after it must be kept.
+     */
+    public long oldestSequence() throws IOException {
+        List<Path> snapshots = list();
+        return snapshots.isEmpty() ? 0 : sequenceOf(snapshots.get(0));
+    }
+
+    /**
+     * Newest snapshot that reads back intact, falling back to older ones when the newest is damaged.
+     */
+    public Optional<SnapshotState> loadLatest() throws IOException {
+        List<Path> snapshots = list();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path path = snapshots.get(i);
+            try {
+                return Optional.of(read(ByteBuffer.wrap(Files.readAllBytes(path))));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable snapshot {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private SnapshotState read(ByteBuffer buffer) {
+        int crcOffset = buffer.limit() - Integer.BYTES;
+        if (crcOffset < HEADER) {
+            throw new IllegalStateException("snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, crcOffset);
+        if ((int) crc.getValue() != buffer.getInt(crcOffset)) {
+            throw new IllegalStateException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalStateException("not a version " + VERSION + " snapshot");
+        }
+
+        long sequence = buffer.getLong();
+        long maxOrderId = buffer.getLong();
+        long maxAssetId = buffer.getLong();
+
+        int orderCount = buffer.getInt();
+        Map<Long, OrderEntry> openOrders = new HashMap<>(orderCount * 2);
+        for (int i = 0; i < orderCount; i++) {
+            OrderEntry order = OrderEntry.decode(buffer);
+            openOrders.put(order.id(), order);
+        }
+        int assetCount = buffer.getInt();
+        Map<Long, AssetEntry> assets = new HashMap<>(assetCount * 2);
+        for (int i = 0; i < assetCount; i++) {
+            AssetEntry asset = AssetEntry.decode(buffer);
+            assets.put(asset.id(), asset);
+        }
+        int deletedCount = buffer.getInt();
+        Set<Long> deletedAssetIds = new HashSet<>(deletedCount * 2);
+        for (int i = 0; i < deletedCount; i++) {
+            deletedAssetIds.add(buffer.getLong());
+        }
+        return new SnapshotState(sequence, maxOrderId, maxAssetId, openOrders, assets, deletedAssetIds);
+    }
+
+    private List<Path> list() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(snapshots::add);
+        }
+        snapshots.sort(Comparator.comparingLong(SnapshotStore::sequenceOf));
+        return snapshots;
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
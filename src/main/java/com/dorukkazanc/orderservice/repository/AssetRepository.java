@@ -7,5 +7,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.Optional;
 
 public interface AssetRepository extends JpaRepository<Asset, Long>, JpaSpecificationExecutor<Asset> {
-    Optional<Asset> findByCustomerIdAndAssetName(String customerId, String assetName);
+    Optional<Asset> findByCustomerIdAndAssetName(Long customerId, String assetName);
+
+    boolean existsByCustomerId(Long customerId);
 }
@@ -2,14 +2,33 @@ package com.dorukkazanc.orderservice.repository;
 
 import com.dorukkazanc.orderservice.entity.Order;
 import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
-    Optional<Order> findOrderByIdAndCustomerId(Long id, String customerId);
+    Optional<Order> findOrderByIdAndCustomerId(Long id, Long customerId);
 
-    List<Order> findOrdersByOrderSide(OrderSide orderSide);
+    List<Order> findOrdersByOrderSideAndStatus(OrderSide orderSide, OrderStatus status);
+
+    List<Order> findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus status);
+
+    List<Order> findOrdersByAssetNameAndStatusOrderByCreatedDateAscIdAsc(String assetName, OrderStatus status);
+
+    @Query("SELECT DISTINCT o.assetName FROM Order o WHERE o.status = com.dorukkazanc.orderservice.enums.OrderStatus.PENDING "
+            + "AND (:customerId IS NULL OR o.customerId = :customerId)")
+    List<String> findPendingAssetNames(@Param("customerId") Long customerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = com.dorukkazanc.orderservice.enums.OrderStatus.CANCELED, o.lastModifiedDate = :now "
+            + "WHERE o.id IN :ids AND o.status = com.dorukkazanc.orderservice.enums.OrderStatus.PENDING")
+    int cancelPendingOrders(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
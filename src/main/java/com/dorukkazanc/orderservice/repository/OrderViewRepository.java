@@ -0,0 +1,9 @@
+package com.dorukkazanc.orderservice.repository;
+
+import com.dorukkazanc.orderservice.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, Long>, JpaSpecificationExecutor<OrderView> {
+    boolean existsByCustomerId(Long customerId);
+}
@@ -4,16 +4,24 @@ import com.dorukkazanc.orderservice.dto.*;
 import com.dorukkazanc.orderservice.entity.Asset;
 import com.dorukkazanc.orderservice.entity.Customer;
 import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.entity.OrderView;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.exception.CustomerInUseException;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
 import com.dorukkazanc.orderservice.repository.AssetRepository;
 import com.dorukkazanc.orderservice.repository.CustomerRepository;
 import com.dorukkazanc.orderservice.repository.OrderRepository;
+import com.dorukkazanc.orderservice.repository.OrderViewRepository;
 import com.dorukkazanc.orderservice.utils.DynamicQueryBuilder;
 import com.dorukkazanc.orderservice.utils.PageableBuilder;
+import com.dorukkazanc.orderservice.utils.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -26,6 +34,15 @@ public class AdminService {
     private final CustomerRepository customerRepository;
     private final AssetRepository assetRepository;
     private final OrderRepository orderRepository;
+    private final OrderBookService orderBookService;
+    private final LedgerService ledgerService;
+    private final OptimisticRetry optimisticRetry;
+    private final CommandJournal commandJournal;
+    private final OrderWriter orderWriter;
+    private final IdempotencyCache idempotencyCache;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderSequencer orderSequencer;
+    private final CustomerLocks customerLocks;
 
     @Transactional(readOnly = true)
     public List<CustomerResponseDTO> getAllCustomers() {
@@ -49,6 +66,11 @@ public class AdminService {
             customer.setUsername(customerUpdateDTO.getUsername());
         }
         if (customerUpdateDTO.getActive() != null) {
+            if (Boolean.TRUE.equals(customer.getActive()) && !customerUpdateDTO.getActive()) {
+                // A deactivated customer leaves nothing resting in the books
+                TransactionCallbacks.afterCommit(() -> orderSequencer.massCancel(
+                        MassCancelRequestDTO.builder().customerId(customerId).build()));
+            }
             customer.setActive(customerUpdateDTO.getActive());
         }
         if (customerUpdateDTO.getRole() != null) {
@@ -61,9 +83,19 @@ public class AdminService {
 
     public void deleteCustomer(Long customerId) {
         if (!customerRepository.existsById(customerId)) {
-            throw new RuntimeException("Customer not found with id: " + customerId);
+            // Answered with 400 by the exception handler, as before
+            throw new IllegalArgumentException("Customer not found with id: " + customerId);
+        }
+        // Assets and orders, archived ones included, keep the customer they belong to
+        if (assetRepository.existsByCustomerId(customerId) || orderViewRepository.existsByCustomerId(customerId)) {
+            throw new CustomerInUseException("Customer " + customerId + " still has assets or orders and cannot be deleted");
+        }
+        try {
+            customerRepository.deleteById(customerId);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new CustomerInUseException("Customer " + customerId + " still has assets or orders and cannot be deleted", e);
         }
-        customerRepository.deleteById(customerId);
     }
 
     @Transactional(readOnly = true)
@@ -80,80 +112,126 @@ public class AdminService {
         return convertToAssetResponseDTO(asset);
     }
 
+    /**
+     * Settlement keeps writing to asset rows while an admin edits them, so the edit is checked against the
+     * row version and retried from a fresh read when a settlement got there first. The flush, the write and
+     * the ledger refresh run under the customer's lock, so the customer's order entry cannot reserve against
+     * the balance in between.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AssetResponseDTO updateAsset(Long assetId, AssetUpdateDTO assetUpdateDTO) {
-        Asset asset = assetRepository.findById(assetId)
-                .orElseThrow(() -> new RuntimeException("Asset not found with id: " + assetId));
-        
-        if (assetUpdateDTO.getAssetName() != null) {
-            asset.setAssetName(assetUpdateDTO.getAssetName());
-        }
-        if (assetUpdateDTO.getSize() != null) {
-            asset.setSize(assetUpdateDTO.getSize());
-        }
-        if (assetUpdateDTO.getUsableSize() != null) {
-            asset.setUsableSize(assetUpdateDTO.getUsableSize());
-        }
-        
-        Asset savedAsset = assetRepository.save(asset);
-        return convertToAssetResponseDTO(savedAsset);
+        return customerLocks.callLocked(findAsset(assetId).getCustomerId(), () -> {
+            // Settled deltas still waiting in the window must reach the row before it is overwritten
+            ledgerService.flushSettlements();
+            return optimisticRetry.execute(() -> {
+                Asset asset = findAsset(assetId);
+                long customerId = asset.getCustomerId();
+                String assetName = asset.getAssetName();
+
+                if (assetUpdateDTO.getAssetName() != null) {
+                    asset.setAssetName(assetUpdateDTO.getAssetName());
+                }
+                if (assetUpdateDTO.getSize() != null) {
+                    asset.setSize(assetUpdateDTO.getSize());
+                }
+                if (assetUpdateDTO.getUsableSize() != null) {
+                    asset.setUsableSize(assetUpdateDTO.getUsableSize());
+                }
+
+                Asset savedAsset = assetRepository.save(asset);
+                ledgerService.refresh(customerId, assetName, savedAsset);
+                commandJournal.assetsChanged(JournalRecordType.ASSET_UPDATED, savedAsset);
+                return convertToAssetResponseDTO(savedAsset);
+            });
+        });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteAsset(Long assetId) {
-        if (!assetRepository.existsById(assetId)) {
-            throw new RuntimeException("Asset not found with id: " + assetId);
-        }
-        assetRepository.deleteById(assetId);
+        customerLocks.callLocked(findAsset(assetId).getCustomerId(), () -> {
+            ledgerService.flushSettlements();
+            return optimisticRetry.execute(() -> {
+                Asset asset = findAsset(assetId);
+                assetRepository.delete(asset);
+                ledgerService.evict(asset);
+                commandJournal.deleted(JournalRecordType.ASSET_DELETED, assetId);
+                return null;
+            });
+        });
     }
 
     @Transactional(readOnly = true)
     public List<OrderResponseDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderViewRepository.findAll().stream()
                 .map(this::convertToOrderResponseDTO)
                 .toList();
     }
 
     @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        return orderRepository.findById(orderId)
+                .map(orderWriter::overlay)
+                .map(this::convertToOrderResponseDTO)
+                .or(() -> orderViewRepository.findById(orderId).map(this::convertToOrderResponseDTO))
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-        return convertToOrderResponseDTO(order);
     }
 
+    /**
+     * Amends or cancels any customer's order on the shard that owns its asset, the same way the customer's own
+     * amend and cancel do, so the reservation follows the order and the change is ordered with the matching of
+     * its book. The only status an admin can set is CANCELED, and not together with a new size or price.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponseDTO updateOrder(Long orderId, OrderUpdateDTO orderUpdateDTO) {
         Order order = orderRepository.findById(orderId)
+                .map(orderWriter::overlay)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-        
-        if (orderUpdateDTO.getSize() != null) {
-            order.setSize(orderUpdateDTO.getSize());
-        }
-        if (orderUpdateDTO.getPrice() != null) {
-            order.setPrice(orderUpdateDTO.getPrice());
+        OrderStatus status = orderUpdateDTO.getStatus();
+        if (status != null && status != OrderStatus.CANCELED) {
+            throw new IllegalArgumentException("Order status can only be changed to CANCELED");
         }
-        if (orderUpdateDTO.getStatus() != null) {
-            order.setStatus(orderUpdateDTO.getStatus());
+
+        if (status == OrderStatus.CANCELED) {
+            if (orderUpdateDTO.getSize() != null || orderUpdateDTO.getPrice() != null) {
+                throw new IllegalArgumentException("A canceled order cannot be amended as well");
+            }
+            if (!orderSequencer.cancel(order.getAssetName(), orderId, order.getCustomerId())) {
+                throw new RuntimeException("Only pending orders can be canceled");
+            }
+            return getOrderById(orderId);
         }
-        
-        Order savedOrder = orderRepository.save(order);
-        return convertToOrderResponseDTO(savedOrder);
+
+        OrderUpdateDTO amend = OrderUpdateDTO.builder()
+                .size(orderUpdateDTO.getSize())
+                .price(orderUpdateDTO.getPrice())
+                .build();
+        return orderSequencer.amend(order.getAssetName(), orderId, amend)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
     }
 
     public void deleteOrder(Long orderId) {
-        if (!orderRepository.existsById(orderId)) {
-            throw new RuntimeException("Order not found with id: " + orderId);
-        }
-        orderRepository.deleteById(orderId);
+        // A queued write-behind upsert would bring the row back after the delete
+        orderWriter.flush();
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        customerLocks.lockUntilCompletion(order.getCustomerId());
+        orderRepository.delete(order);
+        orderBookService.remove(order.getAssetName(), orderId);
+        // What the order still held goes back to the balance, journaled with the delete
+        ledgerService.release(orderId);
+        commandJournal.deleted(JournalRecordType.ORDER_DELETED, orderId);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> searchOrders(DynamicRequestDTO request) {
-        Specification<Order> spec = DynamicQueryBuilder.buildSpecification(request);
+        Specification<OrderView> spec = DynamicQueryBuilder.buildSpecification(request);
         Pageable pageable = PageableBuilder.build(request, "createdDate");
         
         if (spec == null) {
             spec = (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
         }
         
-        Page<Order> orders = orderRepository.findAll(spec, pageable);
+        Page<OrderView> orders = orderViewRepository.findAll(spec, pageable);
         return orders.map(this::convertToOrderResponseDTO);
     }
 
@@ -183,6 +261,11 @@ public class AdminService {
         return customers.map(this::convertToCustomerResponseDTO);
     }
 
+    private Asset findAsset(Long assetId) {
+        return assetRepository.findById(assetId)
+                .orElseThrow(() -> new RuntimeException("Asset not found with id: " + assetId));
+    }
+
     // Conversion Methods
     private CustomerResponseDTO convertToCustomerResponseDTO(Customer customer) {
         return CustomerResponseDTO.builder()
@@ -221,9 +304,28 @@ public class AdminService {
                 .build();
     }
 
+    private OrderResponseDTO convertToOrderResponseDTO(OrderView order) {
+        return OrderResponseDTO.builder()
+                .id(order.getId())
+                .customerId(order.getCustomerId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize())
+                .price(order.getPrice())
+                .status(order.getStatus())
+                .createdDate(order.getCreatedDate())
+                .lastModifiedDate(order.getLastModifiedDate())
+                .build();
+    }
+
     public OrderMatchResponseDTO matchOrder(Long orderId) {
     Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         return null;
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public CacheStatsDTO getIdempotencyStats() {
+        return idempotencyCache.stats();
+    }
+}
@@ -8,10 +8,11 @@ package com.dorukkazanc.orderservice.service;
 
 import com.dorukkazanc.orderservice.dto.AssetResponseDTO;
 import com.dorukkazanc.orderservice.dto.DynamicRequestDTO;
+import com.dorukkazanc.orderservice.engine.Balance;
 import com.dorukkazanc.orderservice.entity.Asset;
 import com.dorukkazanc.orderservice.entity.Order;
-import com.dorukkazanc.orderservice.enums.OrderSide;
 import com.dorukkazanc.orderservice.exception.InsufficientAssetException;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
 import com.dorukkazanc.orderservice.repository.AssetRepository;
 import com.dorukkazanc.orderservice.utils.DynamicQueryBuilder;
 import com.dorukkazanc.orderservice.utils.PageableBuilder;
@@ -22,20 +23,12 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @RequiredArgsConstructor
 @Service
 public class AssetService {
     private final AssetRepository assetRepository;
+    private final LedgerService ledgerService;
 
-
-    @Transactional(readOnly = true)
-    public Asset getAssetByCustomerIdAndName(Long id, String assetName) {
-        return assetRepository.findByCustomerIdAndAssetName(id.toString(), assetName).orElse(null);
-    }
-    
     @Transactional(readOnly = true)
     public Page<AssetResponseDTO> searchAssetsByCustomerId(Long customerId, DynamicRequestDTO request) {
         Specification<Asset> spec = DynamicQueryBuilder.buildSpecification(request);
@@ -43,27 +36,50 @@ public class AssetService {
         Pageable pageable = PageableBuilder.build(request, "createdDate");
 
         spec = spec.and((root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("customerId"), customerId.toString()));
+                criteriaBuilder.equal(root.get("customerId"), customerId));
 
         Page<Asset> assets = assetRepository.findAll(spec, pageable);
         return assets.map(this::convertToResponseDTO);
     }
 
+    /**
+     * Resident balance of a customer and asset, or null when the customer does not hold it.
+     */
+    public Balance getBalance(long customerId, String assetName) {
+        return ledgerService.get(customerId, assetName);
+    }
+
+    /**
+     * Reserves what a new order needs in the ledger: the cash for its size at its limit for a buy, the
+     * shares for a sell. The check and the reservation are one step, so concurrent orders of the same
+     * customer cannot both spend the same balance.
+     */
     @Transactional
-    public void updateAssetForOrder(Order order, Asset asset) {
-        if (asset == null) {
-            throw new InsufficientAssetException("Asset not found for the customer");
+    public void updateAssetForOrder(Order order) {
+        if (!ledgerService.reserve(order)) {
+            throw new InsufficientAssetException("Insufficient asset for the order");
         }
+    }
 
-        if (order.getOrderSide().equals(OrderSide.BUY)) {
-            BigDecimal totalCost = order.getPrice().multiply(BigDecimal.valueOf(order.getSize()));
-            asset.setUsableSize(asset.getUsableSize() - totalCost.longValue());
-
-        } else if (order.getOrderSide().equals(OrderSide.SELL)) {
-            asset.setUsableSize(asset.getUsableSize() - order.getSize());
+    /**
+     * Moves the reservation of an amended order to {@code reservation}, what it needs at its new size and
+     * limit. An increase is checked and taken in one step like a new order's, a decrease goes back to the
+     * usable size.
+     */
+    @Transactional
+    public void updateAssetForAmend(Order order, long reservation) {
+        if (!ledgerService.adjust(order, reservation)) {
+            throw new InsufficientAssetException("Insufficient asset for the amended order");
         }
+    }
 
-        assetRepository.save(asset);
+    /**
+     * Gives back what an order still holds in reserve when it leaves the book unfilled: the cash for its
+     * open size at its limit for a buy, the open shares for a sell.
+     */
+    @Transactional
+    public void releaseReservation(Order order) {
+        ledgerService.release(order.getId());
     }
 
     private AssetResponseDTO convertToResponseDTO(Asset asset) {
@@ -78,48 +94,32 @@ public class AssetService {
                 .build();
     }
 
-    public void transferAssetsBetweenCustomers(String makerId, String takerId, String assetName, Long matchedSize, BigDecimal totalCost) {
-        Asset makerAssetTRY = assetRepository.findByCustomerIdAndAssetName(makerId, "TRY")
-                .orElseThrow(() -> new RuntimeException("Maker asset not found"));
-
-        Asset makerAsset = assetRepository.findByCustomerIdAndAssetName(makerId, assetName)
-                .orElseGet(() -> {
-                    Asset newAsset = Asset.builder()
-                            .customerId(makerId)
-                            .assetName(assetName)
-                            .size(0L)
-                            .usableSize(0L)
-                            .build();
-                    return assetRepository.save(newAsset);
-                });
-
-        Asset takerAsset = assetRepository.findByCustomerIdAndAssetName(takerId, assetName)
-                .orElseThrow(() -> new RuntimeException("Taker asset not found"));
-
-        Asset takerAssetTRY = assetRepository.findByCustomerIdAndAssetName(takerId, "TRY")
-                .orElseGet(() -> {
-                    Asset newAsset = Asset.builder()
-                            .customerId(takerId)
-                            .assetName("TRY")
-                            .size(0L)
-                            .usableSize(0L)
-                            .build();
-                    return assetRepository.save(newAsset);
-                });
-
-        if (makerAssetTRY.getUsableSize() < totalCost.longValue()) {
+    /**
+     * Settles one execution in the ledger. {@code makerId} is the buyer and {@code takerId} the seller; both
+     * already hold reservations from order entry, {@code releasedReservation} is the part of the buyer's cash
+     * reservation freed by this fill and {@code cash} the part of it actually paid.
+     */
+    public void transferAssetsBetweenCustomers(long buyOrderId, long sellOrderId, long makerId, long takerId,
+                                               String assetName, long matchedSize, long cash, long releasedReservation) {
+        Balance makerAssetTRY = ledgerService.get(makerId, "TRY");
+        if (makerAssetTRY == null) {
+            throw new RuntimeException("Maker asset not found");
+        }
+        Balance takerAsset = ledgerService.get(takerId, assetName);
+        if (takerAsset == null) {
+            throw new RuntimeException("Taker asset not found");
+        }
+        if (makerAssetTRY.getSize() < cash || cash > releasedReservation) {
             throw new InsufficientAssetException("Insufficient asset for maker");
         }
-
-        makerAsset.setSize(makerAsset.getSize() + matchedSize);
-        makerAsset.setUsableSize(makerAsset.getUsableSize() + matchedSize);
-        makerAssetTRY.setSize(makerAssetTRY.getSize() - totalCost.longValue());
-
-
-        takerAsset.setSize(takerAsset.getSize() - matchedSize);
-        takerAssetTRY.setSize(takerAssetTRY.getSize() + totalCost.longValue());
-        takerAssetTRY.setUsableSize(takerAssetTRY.getUsableSize() + totalCost.longValue());
-
-        assetRepository.saveAll(List.of(makerAssetTRY, makerAsset, takerAssetTRY, takerAsset));
+        Balance makerAsset = ledgerService.getOrCreate(makerId, assetName);
+        Balance takerAssetTRY = ledgerService.getOrCreate(takerId, "TRY");
+
+        ledgerService.consume(buyOrderId, releasedReservation);
+        ledgerService.consume(sellOrderId, matchedSize);
+        ledgerService.apply(makerAssetTRY, -cash, releasedReservation - cash, JournalRecordType.ASSET_TRANSFERRED);
+        ledgerService.apply(makerAsset, matchedSize, matchedSize, JournalRecordType.ASSET_TRANSFERRED);
+        ledgerService.apply(takerAsset, -matchedSize, 0, JournalRecordType.ASSET_TRANSFERRED);
+        ledgerService.apply(takerAssetTRY, cash, cash, JournalRecordType.ASSET_TRANSFERRED);
     }
 }
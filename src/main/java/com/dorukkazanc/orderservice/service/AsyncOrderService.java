@@ -0,0 +1,170 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.event.OrderExecutedEvent;
+import com.dorukkazanc.orderservice.event.OrdersCanceledEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Order entry that does not hold a request thread. An order is validated, reserved, saved and handed to the
+ * sequencer on one of {@code engine.async-entry.threads} entry threads and the returned future completes
+ * with the acknowledgement once that is done; matching carries on on the shard. At most
+ * {@code engine.async-entry.queue-capacity} orders wait for an entry thread, beyond that new ones are
+ * refused with a {@link RejectedExecutionException} instead of queueing without bound.
+ * <p>
+ * Clients follow an order to its final state with {@link #awaitFinalStatus}, which completes once the order
+ * has been filled or canceled. Waiters are kept by order id and released by the events of the committed
+ * fills and cancels, nothing polls the database while they wait.
+ * <p>
+ * Entry threads are daemon threads, so they never hold the JVM up; on shutdown the orders already handed to
+ * them get {@code engine.async-entry.shutdown-timeout} to finish before the threads are interrupted.
+ */
+@Service
+@Slf4j
+public class AsyncOrderService {
+    private final OrderService orderService;
+    private final IdempotencyCache idempotencyCache;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Duration shutdownTimeout;
+    private final Map<Long, Set<CompletableFuture<OrderResponseDTO>>> waiters = new ConcurrentHashMap<>();
+
+    public AsyncOrderService(OrderService orderService, IdempotencyCache idempotencyCache,
+                             EngineProperties engineProperties) {
+        this.orderService = orderService;
+        this.idempotencyCache = idempotencyCache;
+        EngineProperties.AsyncEntry settings = engineProperties.getAsyncEntry();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-entry-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.maxWait = settings.getMaxWait();
+        this.shutdownTimeout = settings.getShutdownTimeout();
+    }
+
+    /**
+     * Enters an order on an entry thread; the future completes with the accepted order or the reason it
+     * was not accepted.
+     */
+    public CompletableFuture<OrderResponseDTO> createOrder(Long customerId, String idempotencyKey,
+                                                           OrderRequestDTO orderRequestDTO) {
+        return CompletableFuture.supplyAsync(() -> idempotencyKey == null
+                ? orderService.createOrder(customerId, orderRequestDTO)
+                : idempotencyCache.execute(customerId, idempotencyKey, orderRequestDTO,
+                        () -> orderService.createOrder(customerId, orderRequestDTO)), executor);
+    }
+
+    /**
+     * Completes with the order once it is no longer PENDING, right away if it already is not. Canceling the
+     * returned future, as on a timeout, stops waiting.
+     */
+    public CompletableFuture<OrderResponseDTO> awaitFinalStatus(OrderResponseDTO order) {
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return CompletableFuture.completedFuture(order);
+        }
+        Long orderId = order.getId();
+        CompletableFuture<OrderResponseDTO> finalStatus = new CompletableFuture<>();
+        waiters.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(finalStatus);
+        finalStatus.whenComplete((result, failure) -> removeWaiter(orderId, finalStatus));
+
+        // The order may have been filled or canceled after it was read and before the waiter was in place
+        orderService.getOrderById(orderId)
+                .filter(current -> current.getStatus() != OrderStatus.PENDING)
+                .ifPresent(finalStatus::complete);
+        return finalStatus;
+    }
+
+    /**
+     * Longest wait a client may ask for, in milliseconds.
+     */
+    public long getMaxWaitMillis() {
+        return maxWait.toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        for (OrderExecutedEvent.Execution execution : event.executions()) {
+            if (execution.status() != OrderStatus.PENDING) {
+                release(execution.orderId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersCanceled(OrdersCanceledEvent event) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        event.orderIds().forEach(this::release);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Order entry threads did not finish within {}, interrupting them", shutdownTimeout);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Completes the waiters of an order with its state as of now. The order is read on an entry thread, the
+     * events arrive on the matching shard, which must not block on the database. If no entry thread can take
+     * it the waiters run into their timeout, which answers with the order's current state as well.
+     */
+    private void release(Long orderId) {
+        Set<CompletableFuture<OrderResponseDTO>> released = waiters.remove(orderId);
+        if (released == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    orderService.getOrderById(orderId)
+                            .ifPresent(order -> released.forEach(waiter -> waiter.complete(order)));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to report the final status of order {}: {}", orderId, e.getMessage());
+                    released.forEach(waiter -> waiter.completeExceptionally(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Order entry queue is full, final status of order {} is reported on timeout", orderId);
+        }
+    }
+
+    private void removeWaiter(Long orderId, CompletableFuture<OrderResponseDTO> waiter) {
+        waiters.computeIfPresent(orderId, (id, pending) -> {
+            pending.remove(waiter);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+}
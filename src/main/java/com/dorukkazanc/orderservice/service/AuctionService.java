@@ -0,0 +1,42 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which assets are in call-auction mode. Orders for such an asset are collected in its book without
+ * matching until the auction is uncrossed. Auctions opened by an admin end with their uncross, assets
+ * listed in {@code engine.auction.assets} stay in auction mode and are uncrossed every interval.
+ */
+@Service
+@Slf4j
+public class AuctionService {
+    private final Set<String> scheduledAssets;
+    private final Set<String> openAuctions = ConcurrentHashMap.newKeySet();
+
+    public AuctionService(EngineProperties engineProperties) {
+        this.scheduledAssets = Set.copyOf(engineProperties.getAuction().getAssets());
+    }
+
+    public void open(String assetName) {
+        if (openAuctions.add(assetName)) {
+            log.info("Opened call auction for {}", assetName);
+        }
+    }
+
+    public void close(String assetName) {
+        openAuctions.remove(assetName);
+    }
+
+    public boolean isCollecting(String assetName) {
+        return openAuctions.contains(assetName) || scheduledAssets.contains(assetName);
+    }
+
+    public Set<String> getScheduledAssets() {
+        return scheduledAssets;
+    }
+}
@@ -45,7 +45,7 @@ public class AuthService {
 
         Customer customer = (Customer) authentication.getPrincipal();
         return new LoginResponseDTO(
-                customer.getId().toString(),
+                customer.getId(),
                 customer.getUsername(),
                 customer.getRole(),
                 customer.getActive()
@@ -0,0 +1,126 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.engine.Balance;
+import com.dorukkazanc.orderservice.engine.NetDeltas;
+import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.journal.AssetEntry;
+import com.dorukkazanc.orderservice.journal.DeletedEntry;
+import com.dorukkazanc.orderservice.journal.JournalEntry;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
+import com.dorukkazanc.orderservice.journal.JournalWriter;
+import com.dorukkazanc.orderservice.journal.OrderEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Records committed state changes in the command journal. Changes are collected per transaction and
+ * appended together once it commits, taking the entity state at that point, so the journal only ever
+ * holds what the database holds. Does nothing when the journal is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommandJournal {
+    private final Optional<JournalWriter> journalWriter;
+    private final OrderWriter orderWriter;
+
+    public void orderChanged(JournalRecordType type, Order order) {
+        record(type, () -> new OrderEntry(order.getId(), order.getCustomerId(), order.getAssetName(),
+                order.getOrderSide(), order.getSize(), order.getPrice(), order.getStatus(),
+                order.getCreatedDate(), order.getLastModifiedDate()));
+    }
+
+    public void assetsChanged(JournalRecordType type, Asset... assets) {
+        for (Asset asset : assets) {
+            record(type, () -> new AssetEntry(asset.getId(), asset.getCustomerId(), asset.getAssetName(),
+                    asset.getSize(), asset.getUsableSize(), asset.getCreatedDate(), asset.getLastModifiedDate()));
+        }
+    }
+
+    /**
+     * Ledger balances are shared by concurrent transactions, so their live values may hold changes that have
+     * not committed. A balance is journaled instead with its committed values plus the net change
+     * {@code deltas} holds for it once the transaction commits, stamped with that time as its modification date.
+     */
+    public void balanceChanged(JournalRecordType type, Balance balance, NetDeltas deltas) {
+        record(type, () -> {
+            long[] delta = deltas.get(balance);
+            long[] committed = balance.commit(delta[0], delta[1]);
+            return new AssetEntry(balance.getId(), balance.getCustomerId(), balance.getAssetName(),
+                    committed[0], committed[1], balance.getCreatedDate(), LocalDateTime.now());
+        });
+    }
+
+    public void deleted(JournalRecordType type, Long id) {
+        record(type, () -> new DeletedEntry(id));
+    }
+
+    /**
+     * Called by the engine when a shard has drained its current batch.
+     */
+    public void endOfBatch() {
+        journalWriter.ifPresent(JournalWriter::endOfBatch);
+    }
+
+    private void record(JournalRecordType type, Supplier<JournalEntry> entry) {
+        if (journalWriter.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(new PendingRecord(type, entry)));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<PendingRecord> pending = (List<PendingRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<PendingRecord> records = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, records);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(records);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CommandJournal.this);
+                }
+            });
+            pending = records;
+        }
+        pending.add(new PendingRecord(type, entry));
+    }
+
+    /**
+     * The records of one commit are taken and appended as one, so a balance's committed values reach the
+     * journal in the order they were taken. Changed orders are handed to the {@link OrderWriter} only once
+     * their records are in the journal, so the database never gets ahead of it.
+     */
+    private void append(List<PendingRecord> records) {
+        JournalWriter writer = journalWriter.get();
+        List<OrderEntry> changedOrders = new ArrayList<>();
+        synchronized (writer) {
+            for (PendingRecord record : records) {
+                JournalEntry entry = record.entry().get();
+                writer.append(record.type(), entry);
+                if (entry instanceof OrderEntry order && record.type() != JournalRecordType.ORDER_ACCEPTED) {
+                    changedOrders.add(order);
+                }
+            }
+        }
+        writer.endOfCommand();
+        changedOrders.forEach(orderWriter::submit);
+    }
+
+    private record PendingRecord(JournalRecordType type, Supplier<JournalEntry> entry) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.engine.StripedLock;
+import com.dorukkazanc.orderservice.utils.TransactionCallbacks;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process lock per customer, striped over {@code engine.customer-lock-stripes} locks. Orders of one
+ * customer are entered one at a time while unrelated customers run in parallel.
+ */
+@Component
+public class CustomerLocks {
+    private final StripedLock stripedLock;
+
+    public CustomerLocks(EngineProperties engineProperties) {
+        this.stripedLock = new StripedLock(engineProperties.getCustomerLockStripes());
+    }
+
+    /**
+     * Locks a customer until the current transaction has committed or rolled back.
+     */
+    public void lockUntilCompletion(Long customerId) {
+        ReentrantLock lock = stripedLock.forKey(customerId);
+        lock.lock();
+        TransactionCallbacks.afterCompletion(lock::unlock);
+    }
+
+    /**
+     * Runs {@code action} holding the lock of a customer, for work that spans several transactions.
+     */
+    public <T> T callLocked(Long customerId, Supplier<T> action) {
+        ReentrantLock lock = stripedLock.forKey(customerId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.dto.AuctionResultDTO;
+import com.dorukkazanc.orderservice.dto.MassCancelRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
+import com.dorukkazanc.orderservice.engine.CommandHandler;
+import com.dorukkazanc.orderservice.engine.EngineCommand;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes engine commands on their shard thread. Each command runs in its own transaction through
+ * the service it belongs to; results are handed back through the command's reply future.
+ * <p>
+ * With write-behind the database no longer confirms a change, so replies are held back until the shard's
+ * batch ends and the journal has been flushed: a command is only acknowledged once it is durable.
+ */
+@Component
+@RequiredArgsConstructor
+public class EngineCommandHandler implements CommandHandler {
+    private final MatchService matchService;
+    private final OrderService orderService;
+    private final CommandJournal commandJournal;
+    private final AuctionService auctionService;
+    private final OrderWriter orderWriter;
+    private final ThreadLocal<List<Reply>> heldReplies = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public void onCommand(EngineCommand command, long sequence, boolean endOfBatch) {
+        try {
+            Object result = switch (command.getType()) {
+                case NEW_ORDER -> {
+                    if (!auctionService.isCollecting(command.getAssetName())) {
+                        matchService.matchIfPending(command.getOrderId());
+                    }
+                    yield null;
+                }
+                case MATCH -> {
+                    if (auctionService.isCollecting(command.getAssetName())) {
+                        throw new RuntimeException("Asset is in auction mode: " + command.getAssetName());
+                    }
+                    matchService.matchOrder(command.getOrderId());
+                    yield null;
+                }
+                case CANCEL -> orderService.deleteOrder(command.getOrderId(), command.getCustomerId());
+                case MASS_CANCEL -> orderService.cancelOrders(command.getAssetName(), (MassCancelRequestDTO) command.getPayload());
+                case AMEND -> orderService.updateOrder(command.getOrderId(), (OrderUpdateDTO) command.getPayload());
+                case UNCROSS -> {
+                    AuctionResultDTO auctionResult = matchService.uncross(command.getAssetName());
+                    auctionService.close(command.getAssetName());
+                    yield auctionResult;
+                }
+            };
+
+            if (command.getReply() == null) {
+                return;
+            }
+            if (orderWriter.isWriteBehind()) {
+                heldReplies.get().add(new Reply(command.getReply(), result));
+            } else {
+                command.getReply().complete(result);
+            }
+        } finally {
+            if (endOfBatch) {
+                commandJournal.endOfBatch();
+                releaseReplies();
+            }
+        }
+    }
+
+    private void releaseReplies() {
+        List<Reply> replies = heldReplies.get();
+        if (replies.isEmpty()) {
+            return;
+        }
+        for (Reply reply : replies) {
+            reply.future().complete(reply.result());
+        }
+        replies.clear();
+    }
+
+    private record Reply(CompletableFuture<Object> future, Object result) {
+    }
+}
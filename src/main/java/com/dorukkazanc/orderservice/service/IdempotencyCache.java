@@ -0,0 +1,94 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each {@code Idempotency-Key} a customer sends, so a retried request gets the
+ * stored response instead of being executed again. A retry arriving while the first attempt still runs waits
+ * for it. Failed attempts are forgotten and can be retried with the same key; a key sent again with a
+ * different request is rejected.
+ * <p>
+ * Keys are scoped to the customer, bounded by {@code engine.idempotency.maximum-size} and forgotten
+ * {@code engine.idempotency.expire-after-write} after the first request.
+ */
+@Component
+public class IdempotencyCache {
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<Key, Entry> cache;
+    private final long maximumSize;
+
+    public IdempotencyCache(EngineProperties engineProperties) {
+        EngineProperties.Idempotency settings = engineProperties.getIdempotency();
+        this.maximumSize = settings.getMaximumSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(long customerId, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(customerId, idempotencyKey);
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        Entry entry = cache.get(key, ignored -> new Entry(request, response));
+        if (!entry.request().equals(request)) {
+            throw new RuntimeException("Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+        if (entry.response() != response) {
+            return (T) await(entry.response());
+        }
+
+        try {
+            T result = action.get();
+            response.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, entry);
+            response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsDTO.builder()
+                .size(cache.estimatedSize())
+                .maximumSize(maximumSize)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(long customerId, String idempotencyKey) {
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> response) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.journal.AssetEntry;
+import com.dorukkazanc.orderservice.journal.DeletedEntry;
+import com.dorukkazanc.orderservice.journal.JournalReader;
+import com.dorukkazanc.orderservice.journal.JournalRecord;
+import com.dorukkazanc.orderservice.journal.JournalWriter;
+import com.dorukkazanc.orderservice.journal.OrderEntry;
+import com.dorukkazanc.orderservice.journal.SnapshotState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Rebuilds orders and assets from the command journal at startup. Runs once every singleton is up, which
+ * puts it after the seed data is loaded and before the web server takes requests. Records hold absolute
+ * state and are applied as upserts by id, so replaying over rows that already reflect them is harmless.
+ * <p>
+ * Foreign keys stay enforced. Customers are not journaled; the ones orders and assets refer to come with the
+ * seed data and cannot be deleted while they hold any, so they are in place before the first record is
+ * applied. A record of a customer this database does not know fails the startup instead of leaving orphans.
+ * <p>
+ * With snapshots enabled the newest snapshot is restored first and only the journal written after it is
+ * replayed, so restart time follows the size of the books rather than the length of the history. Orders
+ * that were already filled or canceled when the snapshot was taken are not restored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JournalReplayService implements SmartInitializingSingleton {
+    static final String UPSERT_ORDER = "MERGE INTO orders (id, customer_id, asset_name, order_side, size, price, "
+            + "status, created_date, last_modified_date) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_ASSET = "MERGE INTO assets (id, customer_id, asset_name, size, usable_size, "
+            + "created_date, last_modified_date) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final Optional<JournalWriter> journalWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderBookService orderBookService;
+    private final LedgerService ledgerService;
+    private final SnapshotService snapshotService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        journalWriter.ifPresent(writer -> replay(new JournalReader(writer.getDirectory())));
+    }
+
+    private void replay(JournalReader reader) {
+        long start = System.nanoTime();
+        SnapshotState snapshot = snapshotService.isEnabled() ? snapshotService.loadLatest() : new SnapshotState();
+        long snapshotSequence = snapshot.getSequence();
+
+        long lastSequence;
+        try {
+            if (snapshotSequence > 0) {
+                restore(snapshot);
+            }
+            lastSequence = reader.replay(snapshotSequence, record -> {
+                try {
+                    apply(record);
+                } catch (DataIntegrityViolationException e) {
+                    throw new IllegalStateException("Journal record " + record.sequence() + " (" + record.type()
+                            + ") does not fit this database: " + e.getMostSpecificCause().getMessage(), e);
+                }
+                snapshot.apply(record);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the command journal", e);
+        }
+        snapshotService.resume(snapshot);
+        if (lastSequence == 0) {
+            return;
+        }
+
+        // Archived orders are final, a copy the journal brought back into the live table is dropped
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (SELECT id FROM orders_history)");
+        restartSequence("orders", snapshot.getMaxOrderId());
+        restartSequence("assets", snapshot.getMaxAssetId());
+        orderBookService.loadBooks();
+        ledgerService.load();
+        log.info("Recovered from snapshot at sequence {} and journal up to sequence {} in {} ms",
+                snapshotSequence, lastSequence, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a snapshot parents first: the customers are already there, then the balances, then the orders.
+     */
+    private void restore(SnapshotState snapshot) {
+        snapshot.getDeletedAssetIds().forEach(id -> jdbcTemplate.update("DELETE FROM assets WHERE id = ?", id));
+        snapshot.getAssets().stream()
+                .sorted(Comparator.comparingLong(AssetEntry::id))
+                .forEach(this::upsert);
+        snapshot.getOpenOrders().stream()
+                .sorted(Comparator.comparingLong(OrderEntry::id))
+                .forEach(this::upsert);
+        log.info("Restored snapshot at sequence {}: {} open orders, {} assets", snapshot.getSequence(),
+                snapshot.getOpenOrders().size(), snapshot.getAssets().size());
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record.type()) {
+            case ORDER_ACCEPTED, ORDER_AMENDED, ORDER_EXECUTED, ORDER_CANCELED -> upsert((OrderEntry) record.entry());
+            case ASSET_RESERVED, ASSET_RELEASED, ASSET_TRANSFERRED, ASSET_UPDATED -> upsert((AssetEntry) record.entry());
+            case ORDER_DELETED -> jdbcTemplate.update("DELETE FROM orders WHERE id = ?", ((DeletedEntry) record.entry()).id());
+            case ASSET_DELETED -> jdbcTemplate.update("DELETE FROM assets WHERE id = ?", ((DeletedEntry) record.entry()).id());
+        }
+    }
+
+    private void upsert(OrderEntry order) {
+        jdbcTemplate.update(UPSERT_ORDER, orderRow(order));
+    }
+
+    static Object[] orderRow(OrderEntry order) {
+        return new Object[]{order.id(), order.customerId(), order.assetName(), order.orderSide().name(), order.size(),
+                order.price(), order.status().name(), order.createdDate(), order.lastModifiedDate()};
+    }
+
+    private void upsert(AssetEntry asset) {
+        jdbcTemplate.update(UPSERT_ASSET, asset.id(), asset.customerId(), asset.assetName(),
+                asset.size(), asset.usableSize(), asset.createdDate(), asset.lastModifiedDate());
+    }
+
+    /**
+     * Rows come back with their original ids, move the table's id sequence past them, and past ids only the
+     * journal still knows about, so new rows do not collide or reuse an id. Runs before anything is inserted,
+     * so no block of ids has been taken from the old sequence yet.
+     */
+    private void restartSequence(String table, long maxJournaledId) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long nextId = Math.max(maxId == null ? 0 : maxId, maxJournaledId) + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + nextId);
+    }
+}
@@ -0,0 +1,397 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.engine.Balance;
+import com.dorukkazanc.orderservice.engine.BalanceLedger;
+import com.dorukkazanc.orderservice.engine.NetDeltas;
+import com.dorukkazanc.orderservice.engine.PriceScale;
+import com.dorukkazanc.orderservice.engine.PriceScales;
+import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
+import com.dorukkazanc.orderservice.repository.AssetRepository;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
+import com.dorukkazanc.orderservice.utils.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every customer's balances and the reservations of resting orders resident in a {@link BalanceLedger}.
+ * Checks and settlement only touch memory; the changes a transaction makes are collected as one net delta per
+ * balance, and if the transaction rolls back the same deltas are taken back out of the ledger.
+ * <p>
+ * Committed deltas are netted further in a settlement window shared by all transactions and written to the
+ * assets table in one batched transaction once the window holds {@code engine.settlement.max-rows} balances or
+ * {@code engine.settlement.max-delay} has passed; the command journal, appended on every commit, covers the
+ * gap. With {@code max-rows} at 0 each transaction writes its own deltas just before it commits. Deltas rather
+ * than absolute values are written so writers that touch the same balance cannot overwrite each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+    private static final String APPLY_DELTA =
+            "UPDATE assets SET size = size + ?, usable_size = usable_size + ?, last_modified_date = ?, version = version + 1 WHERE id = ?";
+
+    private final AssetRepository assetRepository;
+    private final OrderRepository orderRepository;
+    private final PriceScales priceScales;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CommandJournal commandJournal;
+    private final EngineProperties engineProperties;
+    private final BalanceLedger ledger = new BalanceLedger();
+    private final Object windowLock = new Object();
+    private NetDeltas window = new NetDeltas();
+
+    @PostConstruct
+    public void load() {
+        ledger.clear();
+        assetRepository.findAll().forEach(asset -> ledger.put(toBalance(asset)));
+
+        List<Order> pendingOrders = orderRepository.findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus.PENDING);
+        for (Order order : pendingOrders) {
+            Balance balance = ledger.get(order.getCustomerId(), reservedAssetName(order));
+            if (balance != null) {
+                ledger.adjustReservation(order.getId(), balance, reservationFor(order, order.getSize()));
+            }
+        }
+        log.info("Loaded {} balances and {} reservations into the ledger", ledger.size(), pendingOrders.size());
+    }
+
+    public Balance get(long customerId, String assetName) {
+        return ledger.get(customerId, assetName);
+    }
+
+    /**
+     * Balance of a customer and asset, opened with a zero row of its own when the customer never held the
+     * asset. The row is committed right away so other transactions can apply deltas to it.
+     */
+    public Balance getOrCreate(long customerId, String assetName) {
+        return ledger.getOrCreate(customerId, assetName, this::createBalance);
+    }
+
+    /**
+     * The asset a resting order holds in reserve: cash for a buy, the traded asset for a sell.
+     */
+    public String reservedAssetName(Order order) {
+        return order.getOrderSide() == OrderSide.BUY ? "TRY" : order.getAssetName();
+    }
+
+    /**
+     * What an order holds in reserve for {@code openSize}: the cash at its limit for a buy,
+     * the shares for a sell.
+     */
+    public long reservationFor(Order order, long openSize) {
+        if (order.getOrderSide() == OrderSide.BUY) {
+            PriceScale priceScale = priceScales.forAsset(order.getAssetName());
+            return priceScale.cash(priceScale.toTicks(order.getPrice()), openSize);
+        }
+        return openSize;
+    }
+
+    public boolean reserve(Order order) {
+        Balance balance = ledger.get(order.getCustomerId(), reservedAssetName(order));
+        long amount = reservationFor(order, order.getSize());
+        if (balance == null || !ledger.reserve(order.getId(), balance, amount)) {
+            return false;
+        }
+        long orderId = order.getId();
+        changes().add(balance, 0, -amount, JournalRecordType.ASSET_RESERVED,
+                () -> ledger.adjustReservation(orderId, balance, -amount));
+        return true;
+    }
+
+    /**
+     * Changes what a resting order holds in reserve to {@code amount}, taking the difference out of the usable
+     * size or giving it back. Fails without changing anything when the usable size does not cover an increase.
+     */
+    public boolean adjust(Order order, long amount) {
+        BalanceLedger.Reservation reservation = ledger.getReservation(order.getId());
+        Balance balance = reservation != null
+                ? reservation.getBalance()
+                : ledger.get(order.getCustomerId(), reservedAssetName(order));
+        long delta = amount - (reservation != null ? reservation.getAmount() : 0);
+        if (delta == 0) {
+            return true;
+        }
+        if (balance == null) {
+            return false;
+        }
+        long orderId = order.getId();
+        if (delta > 0) {
+            if (!ledger.reserve(orderId, balance, delta)) {
+                return false;
+            }
+            changes().add(balance, 0, -delta, JournalRecordType.ASSET_RESERVED,
+                    () -> ledger.adjustReservation(orderId, balance, -delta));
+        } else {
+            ledger.adjustReservation(orderId, balance, delta);
+            balance.apply(0, -delta);
+            changes().add(balance, 0, -delta, JournalRecordType.ASSET_RELEASED,
+                    () -> ledger.adjustReservation(orderId, balance, -delta));
+        }
+        return true;
+    }
+
+    /**
+     * Drops an order's reservation and returns what it still held to the usable size.
+     */
+    public long release(long orderId) {
+        BalanceLedger.Reservation reservation = ledger.getReservation(orderId);
+        long amount = ledger.release(orderId);
+        if (amount > 0) {
+            Balance balance = reservation.getBalance();
+            changes().add(balance, 0, amount, JournalRecordType.ASSET_RELEASED,
+                    () -> ledger.adjustReservation(orderId, balance, amount));
+        }
+        return amount;
+    }
+
+    /**
+     * Takes the part of an order's reservation a fill settles off the reservation. The balance itself is
+     * changed by the caller through {@link #apply}.
+     */
+    public void consume(long orderId, long amount) {
+        BalanceLedger.Reservation reservation = ledger.getReservation(orderId);
+        if (reservation == null || amount == 0) {
+            return;
+        }
+        Balance balance = reservation.getBalance();
+        ledger.adjustReservation(orderId, balance, -amount);
+        changes().undo(() -> ledger.adjustReservation(orderId, balance, amount));
+    }
+
+    public void apply(Balance balance, long sizeDelta, long usableSizeDelta, JournalRecordType type) {
+        balance.apply(sizeDelta, usableSizeDelta);
+        changes().add(balance, sizeDelta, usableSizeDelta, type, null);
+    }
+
+    /**
+     * Takes over an admin edit of an asset row once it commits. {@code customerId} and {@code assetName} are
+     * what the row held before the edit.
+     */
+    public void refresh(long customerId, String assetName, Asset asset) {
+        Balance updated = toBalance(asset);
+        TransactionCallbacks.afterCommit(() -> {
+            Balance existing = ledger.get(customerId, assetName);
+            if (existing != null && existing.getId() == updated.getId()
+                    && customerId == updated.getCustomerId() && assetName.equals(updated.getAssetName())) {
+                existing.set(updated.getSize(), updated.getUsableSize());
+                return;
+            }
+            if (existing != null && existing.getId() == updated.getId()) {
+                ledger.remove(existing);
+            }
+            ledger.put(updated);
+        });
+    }
+
+    public void evict(Asset asset) {
+        long customerId = asset.getCustomerId();
+        String assetName = asset.getAssetName();
+        long id = asset.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            Balance existing = ledger.get(customerId, assetName);
+            if (existing != null && existing.getId() == id) {
+                ledger.remove(existing);
+            }
+        });
+    }
+
+    /**
+     * Writes out the settlement window, called every {@code engine.settlement.max-delay}.
+     */
+    @Scheduled(fixedDelayString = "${engine.settlement.max-delay:20ms}")
+    public void flushSettlements() {
+        NetDeltas closed;
+        synchronized (windowLock) {
+            if (window.isEmpty()) {
+                return;
+            }
+            closed = window;
+            window = new NetDeltas();
+        }
+        writeWindow(closed);
+    }
+
+    @PreDestroy
+    public void close() {
+        flushSettlements();
+    }
+
+    private void settle(NetDeltas deltas) {
+        if (!isWindowed()) {
+            write(deltas, true);
+            return;
+        }
+        NetDeltas closed = null;
+        synchronized (windowLock) {
+            window.addAll(deltas);
+            if (window.size() >= engineProperties.getSettlement().getMaxRows()) {
+                closed = window;
+                window = new NetDeltas();
+            }
+        }
+        if (closed != null) {
+            writeWindow(closed);
+        }
+    }
+
+    private void writeWindow(NetDeltas closed) {
+        try {
+            requiresNew().executeWithoutResult(status -> write(closed, false));
+        } catch (RuntimeException e) {
+            log.error("Could not write {} settled balances, keeping them for the next window: {}", closed.size(), e.getMessage());
+            synchronized (windowLock) {
+                window.addAll(closed);
+            }
+        }
+    }
+
+    /**
+     * Applies net deltas to the assets table in one JDBC batch. Deltas of a window may refer to rows an admin
+     * deleted since, those are skipped; inside a settling transaction a missing row fails the transaction.
+     */
+    private void write(NetDeltas deltas, boolean strict) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        List<Balance> balances = new ArrayList<>(deltas.size());
+        deltas.forEach((balance, sizeDelta, usableSizeDelta) -> {
+            batch.add(new Object[]{sizeDelta, usableSizeDelta, now, balance.getId()});
+            balances.add(balance);
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA, batch);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                if (strict) {
+                    throw new RuntimeException("Asset not found with id: " + balances.get(i).getId());
+                }
+                log.warn("Skipped settlement of deleted asset {}", balances.get(i).getId());
+            }
+        }
+    }
+
+    private boolean isWindowed() {
+        return engineProperties.getSettlement().getMaxRows() > 0;
+    }
+
+    private TransactionTemplate requiresNew() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private Balance createBalance(long customerId, String assetName) {
+        Asset asset = requiresNew().execute(status -> {
+            Asset saved = assetRepository.save(Asset.builder()
+                    .customerId(customerId)
+                    .assetName(assetName)
+                    .size(0L)
+                    .usableSize(0L)
+                    .build());
+            commandJournal.assetsChanged(JournalRecordType.ASSET_TRANSFERRED, saved);
+            return saved;
+        });
+        return toBalance(asset);
+    }
+
+    private Balance toBalance(Asset asset) {
+        return new Balance(asset.getId(), asset.getCustomerId(), asset.getAssetName(),
+                asset.getSize(), asset.getUsableSize(), asset.getCreatedDate());
+    }
+
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Changes(true);
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes(false);
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Net deltas per balance of one transaction, plus what it takes to undo its reservation changes. Without a
+     * transaction every change is settled on its own.
+     */
+    private class Changes implements TransactionSynchronization {
+        private final boolean autoCommit;
+        private final NetDeltas deltas = new NetDeltas();
+        private final List<Runnable> undo = new ArrayList<>();
+
+        Changes(boolean autoCommit) {
+            this.autoCommit = autoCommit;
+        }
+
+        void add(Balance balance, long sizeDelta, long usableSizeDelta, JournalRecordType type, Runnable reservationUndo) {
+            if (deltas.add(balance, sizeDelta, usableSizeDelta)) {
+                commandJournal.balanceChanged(type, balance, deltas);
+            }
+            if (reservationUndo != null) {
+                undo(reservationUndo);
+            }
+            if (autoCommit) {
+                settle(deltas);
+            }
+        }
+
+        void undo(Runnable action) {
+            if (!autoCommit) {
+                undo.add(action);
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!isWindowed()) {
+                write(deltas, true);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (isWindowed()) {
+                settle(deltas);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LedgerService.this);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            deltas.forEach((balance, sizeDelta, usableSizeDelta) -> balance.apply(-sizeDelta, -usableSizeDelta));
+            for (int i = undo.size() - 1; i >= 0; i--) {
+                undo.get(i).run();
+            }
+            if (!deltas.isEmpty()) {
+                log.warn("Rolled back {} ledger balance changes", deltas.size());
+            }
+        }
+    }
+}
@@ -1,149 +1,230 @@
 package com.dorukkazanc.orderservice.service;
 
-import com.dorukkazanc.orderservice.dto.MatchExecutionResult;
-import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
-import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
+import com.dorukkazanc.orderservice.dto.AuctionResultDTO;
+import com.dorukkazanc.orderservice.engine.AuctionResult;
+import com.dorukkazanc.orderservice.engine.AuctionTrade;
+import com.dorukkazanc.orderservice.engine.Fill;
+import com.dorukkazanc.orderservice.engine.FillBuffer;
+import com.dorukkazanc.orderservice.engine.PriceScale;
+import com.dorukkazanc.orderservice.engine.PriceScales;
+import com.dorukkazanc.orderservice.entity.Order;
 import com.dorukkazanc.orderservice.enums.OrderSide;
 import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.event.OrderExecutedEvent;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MatchService {
-    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderBookService orderBookService;
     private final AssetService assetService;
+    private final PriceScales priceScales;
+    private final CommandJournal commandJournal;
+    private final OrderWriter orderWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void matchOrder(Long orderId) {
-        OrderResponseDTO order = orderService.getOrderById(orderId)
+        Order order = orderRepository.findById(orderId)
+                .map(orderWriter::overlay)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new RuntimeException("Order is not in a matchable state: " + order.getStatus());
         }
 
-        List<MatchExecutionResult> executionResults = new ArrayList<>();
-        Long remainingSize = order.getSize();
-
-        if (order.getOrderSide().equals(OrderSide.BUY)) {
-            remainingSize = matchBuyOrder(order, executionResults, remainingSize);
-        } else {
-            remainingSize = matchSellOrder(order, executionResults, remainingSize);
-        }
-        OrderStatus newStatus = remainingSize <= 0 ? OrderStatus.MATCHED : OrderStatus.PENDING;
-
-        orderService.updateOrder(orderId, OrderUpdateDTO.builder()
-                .size(remainingSize)
-                .status(newStatus)
-                .build());
-                
-        log.info("Order {} matching completed. Status: {}, Remaining size: {}, Executions: {}", 
-                orderId, newStatus, remainingSize, executionResults.size());
+        match(order);
     }
 
-    private Long matchBuyOrder(OrderResponseDTO buyOrder, List<MatchExecutionResult> executionResults, Long remainingSize) {
-        List<OrderResponseDTO> orders = orderService.getOrdersByOrderSide(OrderSide.SELL)
-                .stream()
-                .filter(sellOrder -> sellOrder.getStatus() == OrderStatus.PENDING
-                        && sellOrder.getAssetName().equals(buyOrder.getAssetName())
-                        && !Objects.equals(buyOrder.getCustomerId(), sellOrder.getCustomerId())
-                        && sellOrder.getPrice().compareTo(buyOrder.getPrice()) == 0)
-                .sorted(Comparator.comparing(OrderResponseDTO::getCreatedDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
-
-        for (OrderResponseDTO sellOrder : orders) {
-            if( remainingSize <= 0) {
-                break;
-            }
+    /**
+     * Matches an order if it is still open. Used for auto-matching, where the order may already have
+     * been filled as a resting order or canceled by the time its turn comes.
+     */
+    @Transactional
+    public void matchIfPending(Long orderId) {
+        orderRepository.findById(orderId)
+                .map(orderWriter::overlay)
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .ifPresent(this::match);
+    }
 
-            Long matchedSize = Math.min(remainingSize, sellOrder.getSize());
-            BigDecimal matchedPrice = sellOrder.getPrice();
+    /**
+     * Uncrosses the book of an asset in auction mode: every trade of the auction happens at the one clearing
+     * price and all of them are settled in this single transaction.
+     */
+    @Transactional
+    public AuctionResultDTO uncross(String assetName) {
+        PriceScale priceScale = priceScales.forAsset(assetName);
+        AuctionResult result = orderBookService.uncross(assetName);
+        if (result.trades().isEmpty()) {
+            log.info("Call auction for {} did not cross", assetName);
+            return toAuctionResultDTO(assetName, result, priceScale);
+        }
 
-            var execution = executeMatches(buyOrder, sellOrder, matchedSize, matchedPrice);
-            executionResults.add(execution);
+        Set<Long> orderIds = new HashSet<>();
+        for (AuctionTrade trade : result.trades()) {
+            orderIds.add(trade.buyOrderId());
+            orderIds.add(trade.sellOrderId());
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllById(orderIds).forEach(order -> orders.put(order.getId(), orderWriter.overlay(order)));
+
+        long clearingTicks = result.clearingPriceTicks();
+        BigDecimal clearingPrice = priceScale.toPrice(clearingTicks);
+        List<OrderExecutedEvent.Execution> executions = new ArrayList<>(result.trades().size() * 2);
+        for (AuctionTrade trade : result.trades()) {
+            Order buyOrder = orders.get(trade.buyOrderId());
+            Order sellOrder = orders.get(trade.sellOrderId());
+            if (buyOrder == null || sellOrder == null) {
+                throw new RuntimeException("Order not found with id: "
+                        + (buyOrder == null ? trade.buyOrderId() : trade.sellOrderId()));
+            }
 
-            remainingSize -= matchedSize;
+            // The buy order reserved cash for its open size at its own limit, release the share of this trade
+            long releasedReservation = priceScale.cash(priceScale.toTicks(buyOrder.getPrice()), trade.quantity());
+            long cash = priceScale.cash(clearingTicks, trade.quantity());
+            assetService.transferAssetsBetweenCustomers(buyOrder.getId(), sellOrder.getId(), buyOrder.getCustomerId(),
+                    sellOrder.getCustomerId(), assetName, trade.quantity(), cash, releasedReservation);
 
-            Long newSize = sellOrder.getSize() - matchedSize;
-            OrderStatus newStatus = newSize <= 0 ? OrderStatus.MATCHED : sellOrder.getStatus();
+            applyRemainingSize(buyOrder, trade.buyRemainingSize());
+            applyRemainingSize(sellOrder, trade.sellRemainingSize());
+            executions.add(execution(buyOrder, trade.quantity(), clearingPrice));
+            executions.add(execution(sellOrder, trade.quantity(), clearingPrice));
+        }
 
-            orderService.updateOrder(sellOrder.getId(), OrderUpdateDTO.builder()
-                    .size(newSize)
-                    .status(newStatus)
-                    .build());
+        orderWriter.saveAll(orders.values());
+        for (Order order : orders.values()) {
+            commandJournal.orderChanged(JournalRecordType.ORDER_EXECUTED, order);
+        }
+        eventPublisher.publishEvent(new OrderExecutedEvent(assetName, executions));
 
-            log.info("BUY order {} matched {} shares with BUY order {} at price {}",
-                    buyOrder.getId(), matchedSize, sellOrder.getId(), matchedPrice);        }
+        log.info("Call auction for {} cleared {} shares at {} in {} executions",
+                assetName, result.volume(), clearingPrice, result.trades().size());
+        return toAuctionResultDTO(assetName, result, priceScale);
+    }
 
-        return remainingSize;
+    /**
+     * Loads every resting order of a match pass in one query; their updates are saved together at the end.
+     */
+    private Map<Long, Order> loadRestingOrders(FillBuffer fills) {
+        if (fills.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> orderIds = new HashSet<>();
+        for (int i = 0; i < fills.size(); i++) {
+            orderIds.add(fills.get(i).getRestingOrderId());
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllById(orderIds).forEach(order -> orders.put(order.getId(), orderWriter.overlay(order)));
+        return orders;
     }
 
-    private Long matchSellOrder(OrderResponseDTO sellOrder, List<MatchExecutionResult> executionResults, Long remainingSize) {
-        List<OrderResponseDTO> orders = orderService.getOrdersByOrderSide(OrderSide.BUY)
-                .stream()
-                .filter(buyOrder -> buyOrder.getStatus() == OrderStatus.PENDING
-                        && buyOrder.getAssetName().equals(sellOrder.getAssetName())
-                        && !Objects.equals(sellOrder.getCustomerId(), buyOrder.getCustomerId())
-                        && buyOrder.getPrice().compareTo(sellOrder.getPrice()) == 0)
-                .sorted(Comparator.comparing(OrderResponseDTO::getCreatedDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
-
-        for (OrderResponseDTO buyOrder : orders) {
-            if( remainingSize <= 0) {
-                break;
-            }
+    private void applyRemainingSize(Order order, long remainingSize) {
+        order.setSize(remainingSize);
+        order.setStatus(remainingSize <= 0 ? OrderStatus.MATCHED : OrderStatus.PENDING);
+    }
 
-            Long matchedSize = Math.min(remainingSize, buyOrder.getSize());
-            BigDecimal matchedPrice = buyOrder.getPrice();
+    private OrderExecutedEvent.Execution execution(Order order, long quantity, BigDecimal price) {
+        return new OrderExecutedEvent.Execution(order.getId(), order.getCustomerId(), order.getStatus(), quantity, price,
+                order.getSize(), order.getPrice());
+    }
 
-            var execution = executeMatches(buyOrder, sellOrder, matchedSize, matchedPrice);
-            executionResults.add(execution);
+    private AuctionResultDTO toAuctionResultDTO(String assetName, AuctionResult result, PriceScale priceScale) {
+        return AuctionResultDTO.builder()
+                .assetName(assetName)
+                .clearingPrice(result.clearingPriceTicks() != null ? priceScale.toPrice(result.clearingPriceTicks()) : null)
+                .volume(result.volume())
+                .executions(result.trades().size())
+                .build();
+    }
 
-            remainingSize -= matchedSize;
+    private void match(Order order) {
+        Long orderId = order.getId();
+        PriceScale priceScale = priceScales.forAsset(order.getAssetName());
+        long limitTicks = priceScale.toTicks(order.getPrice());
+        long remainingSize = order.getSize();
+
+        FillBuffer fills = orderBookService.match(order);
+        Map<Long, Order> restingOrders = loadRestingOrders(fills);
+        List<OrderExecutedEvent.Execution> executions = new ArrayList<>(fills.size() * 2);
+        for (int i = 0; i < fills.size(); i++) {
+            Fill fill = fills.get(i);
+            executeMatch(order, limitTicks, fill, priceScale);
+            remainingSize -= fill.getQuantity();
+
+            Order restingOrder = restingOrders.get(fill.getRestingOrderId());
+            if (restingOrder == null) {
+                throw new RuntimeException("Order not found with id: " + fill.getRestingOrderId());
+            }
+            applyRemainingSize(restingOrder, fill.getRestingRemainingSize());
+            BigDecimal fillPrice = priceScale.toPrice(fill.getPriceTicks());
+            executions.add(execution(restingOrder, fill.getQuantity(), fillPrice));
+            executions.add(new OrderExecutedEvent.Execution(orderId, order.getCustomerId(),
+                    remainingSize <= 0 ? OrderStatus.MATCHED : OrderStatus.PENDING, fill.getQuantity(), fillPrice,
+                    remainingSize, order.getPrice()));
+
+            if (log.isDebugEnabled()) {
+                log.debug("{} order {} matched {} shares with {} order {} at price {}",
+                        order.getOrderSide(), orderId, fill.getQuantity(),
+                        restingOrder.getOrderSide(), restingOrder.getId(), fillPrice);
+            }
+        }
 
-            Long newSize = buyOrder.getSize() - matchedSize;
-            OrderStatus newStatus = newSize <= 0 ? OrderStatus.MATCHED : buyOrder.getStatus();
+        if (!restingOrders.isEmpty()) {
+            orderWriter.saveAll(restingOrders.values());
+            for (Order restingOrder : restingOrders.values()) {
+                commandJournal.orderChanged(JournalRecordType.ORDER_EXECUTED, restingOrder);
+            }
+        }
 
-            orderService.updateOrder(buyOrder.getId(), OrderUpdateDTO.builder()
-                    .size(newSize)
-                    .status(newStatus)
-                    .build());
-            log.info("SELL order {} matched {} shares with BUY order {} at price {}",
-                    sellOrder.getId(), matchedSize, buyOrder.getId(), matchedPrice);
+        OrderStatus newStatus = remainingSize <= 0 ? OrderStatus.MATCHED : OrderStatus.PENDING;
+        order.setSize(remainingSize);
+        order.setStatus(newStatus);
+        orderWriter.save(order);
+        if (!fills.isEmpty()) {
+            commandJournal.orderChanged(JournalRecordType.ORDER_EXECUTED, order);
+            eventPublisher.publishEvent(new OrderExecutedEvent(order.getAssetName(), executions));
         }
 
-        return remainingSize;
+        log.info("Order {} matching completed. Status: {}, Remaining size: {}, Executions: {}",
+                orderId, newStatus, remainingSize, fills.size());
     }
 
-    private MatchExecutionResult executeMatches(OrderResponseDTO buyOrder, OrderResponseDTO sellOrder, Long matchedSize, BigDecimal matchedPrice) {
-       try {
-           BigDecimal totalCost = matchedPrice.multiply(BigDecimal.valueOf(matchedSize));
-           assetService.transferAssetsBetweenCustomers(buyOrder.getCustomerId(), sellOrder.getCustomerId(), buyOrder.getAssetName(), matchedSize, totalCost);
-
-           return MatchExecutionResult.builder()
-                   .matchedOrderId(sellOrder.getId())
-                   .matchedSize(matchedSize)
-                   .executionPrice(matchedPrice)
-                   .totalValue(totalCost)
-                   .matchTime(LocalDateTime.now())
-                   .build();
-       } catch (Exception e) {
-           log.error("Error executing match between BUY order {} and SELL order {}: {}",
-                   buyOrder.getId(), sellOrder.getId(), e.getMessage());
-           throw new RuntimeException("Match execution failed: " + e.getMessage(), e);
-       }
+    private void executeMatch(Order order, long limitTicks, Fill fill, PriceScale priceScale) {
+        boolean buyAggressor = order.getOrderSide() == OrderSide.BUY;
+        long buyerId = buyAggressor ? order.getCustomerId() : fill.getRestingCustomerId();
+        long sellerId = buyAggressor ? fill.getRestingCustomerId() : order.getCustomerId();
+
+        // The buy order reserved cash for its open size at its own limit, release the share of this fill
+        long buyLimitTicks = buyAggressor ? limitTicks : fill.getPriceTicks();
+        long releasedReservation = priceScale.cash(buyLimitTicks, fill.getQuantity());
+
+        try {
+            long cash = priceScale.cash(fill.getPriceTicks(), fill.getQuantity());
+            long buyOrderId = buyAggressor ? order.getId() : fill.getRestingOrderId();
+            long sellOrderId = buyAggressor ? fill.getRestingOrderId() : order.getId();
+            assetService.transferAssetsBetweenCustomers(buyOrderId, sellOrderId, buyerId, sellerId, order.getAssetName(),
+                    fill.getQuantity(), cash, releasedReservation);
+        } catch (Exception e) {
+            log.error("Error executing match between order {} and resting order {}: {}",
+                    order.getId(), fill.getRestingOrderId(), e.getMessage());
+            throw new RuntimeException("Match execution failed: " + e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write work on versioned entities in a transaction of its own and starts it over when it
+ * loses an optimistic version check, up to {@code engine.retry.max-attempts} times. Must be called outside
+ * of a transaction, a conflict marks the surrounding one rollback-only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticRetry {
+    private final PlatformTransactionManager transactionManager;
+    private final EngineProperties engineProperties;
+
+    public <T> T execute(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        EngineProperties.Retry retry = engineProperties.getRetry();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= retry.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug("Version conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+                sleep(retry.getBackoff().toMillis() * attempt);
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves filled and canceled orders from {@code orders} to {@code orders_history} so the live table, and the
+ * indexes the matching path reads, stay sized by the open orders instead of everything ever traded.
+ * <p>
+ * Runs every {@code engine.archive.interval}, or earlier once {@code engine.archive.threshold} terminal orders
+ * are waiting. Orders are copied and deleted in batches of {@code engine.archive.batch-size}, each in its own
+ * transaction, so a batch is in exactly one of the tables at any time. Only orders that have not changed for
+ * {@code engine.archive.min-age} are moved, and queued write-behind changes are flushed first, so nothing
+ * still on its way to the live table gets archived. Terminal orders have no book entry or reservation, the
+ * in-memory engine is not involved.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+    private static final String TERMINAL = "status IN ('MATCHED', 'CANCELED') AND COALESCE(last_modified_date, created_date) < ?";
+    private static final String COUNT_TERMINAL = "SELECT COUNT(*) FROM orders WHERE " + TERMINAL;
+    private static final String SELECT_BATCH = "SELECT id FROM orders WHERE " + TERMINAL + " LIMIT ?";
+    private static final String COPY_BATCH = "INSERT INTO orders_history (id, customer_id, asset_name, order_side, "
+            + "size, price, status, created_date, last_modified_date, archived_date) SELECT id, customer_id, asset_name, "
+            + "order_side, size, price, status, created_date, last_modified_date, :archivedDate FROM orders WHERE id IN (:ids)";
+    private static final String DELETE_BATCH = "DELETE FROM orders WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderWriter orderWriter;
+    private final EngineProperties.Archive settings;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile LocalDateTime lastRun = LocalDateTime.now();
+
+    public OrderArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               OrderWriter orderWriter, EngineProperties engineProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderWriter = orderWriter;
+        this.settings = engineProperties.getArchive();
+    }
+
+    @Scheduled(fixedDelayString = "${engine.archive.check-interval:30s}", initialDelayString = "${engine.archive.check-interval:30s}")
+    public void archiveScheduled() {
+        if (!settings.isEnabled() || running.get()) {
+            return;
+        }
+        boolean due = !LocalDateTime.now().isBefore(lastRun.plus(settings.getInterval()));
+        if (!due && settings.getThreshold() > 0) {
+            Long waiting = jdbcTemplate.queryForObject(COUNT_TERMINAL, Long.class, cutoff());
+            due = waiting != null && waiting >= settings.getThreshold();
+        }
+        if (due) {
+            archive();
+        }
+    }
+
+    /**
+     * Moves every terminal order older than the minimum age and returns how many were moved.
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Order archival is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            orderWriter.flush();
+            LocalDateTime cutoff = cutoff();
+            long moved = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> moveBatch(cutoff));
+                moved += batch;
+            } while (batch == settings.getBatchSize());
+            lastRun = LocalDateTime.now();
+            if (moved > 0) {
+                log.info("Archived {} filled and canceled orders in {} ms", moved, (System.nanoTime() - start) / 1_000_000);
+            }
+            return moved;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, Long.class, cutoff, settings.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedDate", LocalDateTime.now());
+        namedJdbcTemplate.update(COPY_BATCH, parameters);
+        namedJdbcTemplate.update(DELETE_BATCH, parameters);
+        return ids.size();
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(settings.getMinAge());
+    }
+}
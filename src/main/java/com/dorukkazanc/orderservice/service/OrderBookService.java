@@ -0,0 +1,157 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.engine.AuctionResult;
+import com.dorukkazanc.orderservice.engine.BookOrder;
+import com.dorukkazanc.orderservice.engine.FillBuffer;
+import com.dorukkazanc.orderservice.engine.OrderBook;
+import com.dorukkazanc.orderservice.engine.PriceScales;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
+import com.dorukkazanc.orderservice.utils.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one resident {@link OrderBook} per asset in sync with the PENDING orders in the database.
+ * Books are filled from {@link OrderRepository} at startup, changes coming from order entry are applied
+ * once their transaction commits, and a book touched by a rolled back transaction is dropped and
+ * reloaded on next use. Queued write-behind changes are written before a book is read back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookService {
+    private final OrderRepository orderRepository;
+    private final PriceScales priceScales;
+    private final OrderWriter orderWriter;
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadBooks() {
+        books.clear();
+        orderWriter.flush();
+        List<Order> pendingOrders = orderRepository.findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus.PENDING);
+        for (Order order : pendingOrders) {
+            books.computeIfAbsent(order.getAssetName(), OrderBook::new).add(toBookOrder(order));
+        }
+        log.info("Loaded {} pending orders into {} order books", pendingOrders.size(), books.size());
+    }
+
+    /**
+     * Matches a PENDING order against its book. Must run inside the transaction that settles the
+     * returned fills so the book can be discarded if that transaction does not commit. The fills live in
+     * the book's reusable buffer and are only valid until the next match of the same asset.
+     */
+    public FillBuffer match(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        TransactionCallbacks.afterRollback(() -> {
+            log.warn("Discarding {} order book after rolled back match", order.getAssetName());
+            books.remove(order.getAssetName());
+        });
+        synchronized (book) {
+            if (book.get(order.getId()) == null) {
+                book.add(toBookOrder(order));
+            }
+            return book.match(order.getId());
+        }
+    }
+
+    /**
+     * Uncrosses the book of an asset in one call auction. Must run inside the transaction that settles the
+     * returned trades so the book can be discarded if that transaction does not commit.
+     */
+    public AuctionResult uncross(String assetName) {
+        OrderBook book = bookFor(assetName);
+        TransactionCallbacks.afterRollback(() -> {
+            log.warn("Discarding {} order book after rolled back auction", assetName);
+            books.remove(assetName);
+        });
+        synchronized (book) {
+            return book.uncross();
+        }
+    }
+
+    /**
+     * Unlinks an order that is being canceled from its book right away and returns the size it still had
+     * open. Must run inside the transaction that cancels the order so the book can be discarded if that
+     * transaction does not commit.
+     */
+    public long cancel(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        TransactionCallbacks.afterRollback(() -> {
+            log.warn("Discarding {} order book after rolled back cancel", order.getAssetName());
+            books.remove(order.getAssetName());
+        });
+        synchronized (book) {
+            BookOrder removed = book.remove(order.getId());
+            return removed != null ? removed.getRemainingSize() : order.getSize();
+        }
+    }
+
+    /**
+     * Brings the book entry of an order in line with its persisted state after the surrounding
+     * transaction commits. Idempotent, so it is safe to call for orders the book already reflects.
+     */
+    public void sync(Order order) {
+        String assetName = order.getAssetName();
+        long orderId = order.getId();
+        OrderStatus status = order.getStatus();
+        long size = order.getSize();
+        BookOrder target = toBookOrder(order);
+
+        TransactionCallbacks.afterCommit(() -> {
+            OrderBook book = bookFor(assetName);
+            synchronized (book) {
+                BookOrder existing = book.get(orderId);
+                if (status != OrderStatus.PENDING || size <= 0) {
+                    book.remove(orderId);
+                } else if (existing == null) {
+                    book.add(target);
+                } else if (existing.getPriceTicks() != target.getPriceTicks()) {
+                    book.remove(orderId);
+                    book.add(target);
+                } else if (existing.getRemainingSize() != size) {
+                    book.resize(orderId, size);
+                }
+            }
+        });
+    }
+
+    public void remove(String assetName, long orderId) {
+        TransactionCallbacks.afterCommit(() -> {
+            OrderBook book = bookFor(assetName);
+            synchronized (book) {
+                book.remove(orderId);
+            }
+        });
+    }
+
+    private OrderBook bookFor(String assetName) {
+        return books.computeIfAbsent(assetName, this::loadBook);
+    }
+
+    private OrderBook loadBook(String assetName) {
+        OrderBook book = new OrderBook(assetName);
+        orderWriter.flush();
+        orderRepository.findOrdersByAssetNameAndStatusOrderByCreatedDateAscIdAsc(assetName, OrderStatus.PENDING)
+                .forEach(order -> book.add(toBookOrder(order)));
+        log.debug("Loaded {} order book with {} pending orders", assetName, book.size());
+        return book;
+    }
+
+    private BookOrder toBookOrder(Order order) {
+        return new BookOrder(
+                order.getId(),
+                order.getCustomerId(),
+                order.getOrderSide(),
+                priceScales.forAsset(order.getAssetName()).toTicks(order.getPrice()),
+                order.getSize());
+    }
+}
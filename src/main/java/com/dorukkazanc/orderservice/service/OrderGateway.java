@@ -0,0 +1,133 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
+import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
+import com.dorukkazanc.orderservice.entity.Customer;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.enums.UserRole;
+import com.dorukkazanc.orderservice.event.OrderExecutedEvent;
+import com.dorukkazanc.orderservice.gateway.AmendOrder;
+import com.dorukkazanc.orderservice.gateway.CancelOrder;
+import com.dorukkazanc.orderservice.gateway.ExecutionReport;
+import com.dorukkazanc.orderservice.gateway.GatewayHandler;
+import com.dorukkazanc.orderservice.gateway.GatewayServer;
+import com.dorukkazanc.orderservice.gateway.NewOrder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Carries out the requests of the binary order entry gateway with the same services the REST API uses:
+ * logons go through the authentication manager, new orders through {@link OrderService} and cancels and
+ * amends through the {@link OrderSequencer}, after the same checks the controllers make. An amend carries a
+ * size and a price only, and is refused when the balance does not cover it. Fills are
+ * reported to the sessions of both sides once the match that produced them has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "engine.gateway", name = "enabled", havingValue = "true")
+public class OrderGateway implements GatewayHandler {
+    private final AuthenticationManager authenticationManager;
+    private final OrderService orderService;
+    private final OrderSequencer orderSequencer;
+    private final Validator validator;
+    private final ObjectProvider<GatewayServer> gatewayServer;
+
+    @Override
+    public long logon(String username, String password) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+        } catch (AuthenticationException e) {
+            throw new RuntimeException("Invalid username or password");
+        }
+        Customer customer = (Customer) authentication.getPrincipal();
+        if (customer.getRole() != UserRole.CUSTOMER) {
+            throw new RuntimeException("Only customers can enter orders");
+        }
+        return customer.getId();
+    }
+
+    @Override
+    public ExecutionReport newOrder(long customerId, NewOrder order) {
+        OrderRequestDTO orderRequestDTO = OrderRequestDTO.builder()
+                .assetName(order.assetName())
+                .orderSide(order.orderSide())
+                .size(order.size())
+                .price(order.price())
+                .build();
+        validate(orderRequestDTO);
+        OrderResponseDTO created = orderService.createOrder(customerId, orderRequestDTO);
+        return report(order.clientOrderId(), created, ExecutionReport.ExecType.NEW);
+    }
+
+    @Override
+    public ExecutionReport cancel(long customerId, CancelOrder cancel) {
+        OrderResponseDTO order = findOwnOrder(customerId, cancel.orderId());
+        if (!orderSequencer.cancel(order.getAssetName(), order.getId(), customerId)) {
+            throw new RuntimeException("Only pending orders can be canceled");
+        }
+        order.setStatus(OrderStatus.CANCELED);
+        return report(cancel.clientOrderId(), order, ExecutionReport.ExecType.CANCELED);
+    }
+
+    @Override
+    public ExecutionReport amend(long customerId, AmendOrder amend) {
+        OrderResponseDTO order = findOwnOrder(customerId, amend.orderId());
+        // Whether the order still rests and the balance covers the new size and limit is checked on the
+        // shard, where the reservation is moved along with the amend
+        OrderUpdateDTO orderUpdateDTO = OrderUpdateDTO.builder()
+                .size(amend.size() != 0 ? amend.size() : null)
+                .price(amend.price().signum() != 0 ? amend.price() : null)
+                .build();
+        validate(orderUpdateDTO);
+        OrderResponseDTO amended = orderSequencer.amend(order.getAssetName(), order.getId(), orderUpdateDTO)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + amend.orderId()));
+        return report(amend.clientOrderId(), amended, ExecutionReport.ExecType.REPLACED);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        GatewayServer server = gatewayServer.getIfAvailable();
+        if (server == null) {
+            return;
+        }
+        for (OrderExecutedEvent.Execution execution : event.executions()) {
+            server.publish(execution.customerId(), new ExecutionReport(0, execution.orderId(),
+                    ExecutionReport.ExecType.TRADE, execution.status(), execution.quantity(), execution.price(),
+                    execution.remainingSize(), execution.limitPrice()));
+        }
+    }
+
+    private OrderResponseDTO findOwnOrder(long customerId, long orderId) {
+        return orderService.getOrderById(orderId)
+                .filter(order -> order.getCustomerId() == customerId)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+    }
+
+    private void validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.iterator().next().getMessage());
+        }
+    }
+
+    private ExecutionReport report(long clientOrderId, OrderResponseDTO order, ExecutionReport.ExecType execType) {
+        return new ExecutionReport(clientOrderId, order.getId(), execType, order.getStatus(), 0, BigDecimal.ZERO,
+                order.getStatus() == OrderStatus.PENDING ? order.getSize() : 0, order.getPrice());
+    }
+}
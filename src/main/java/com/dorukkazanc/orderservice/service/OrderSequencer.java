@@ -0,0 +1,119 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.dto.AuctionResultDTO;
+import com.dorukkazanc.orderservice.dto.MassCancelRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
+import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
+import com.dorukkazanc.orderservice.engine.CommandType;
+import com.dorukkazanc.orderservice.engine.EngineShards;
+import com.dorukkazanc.orderservice.event.OrderAcceptedEvent;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Entry point into the matching engine. New orders, cancels, amends, admin matches and auction uncrosses are published
+ * to the ring buffer of the shard that owns the asset, so every change to an asset's book is applied
+ * by one thread in publication order while assets on different shards run in parallel.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSequencer {
+    private final EngineShards engineShards;
+    private final AuctionService auctionService;
+    private final OrderRepository orderRepository;
+
+    @PostConstruct
+    public void logShards() {
+        log.info("Matching engine running with {} shards", engineShards.size());
+    }
+
+    /**
+     * Queues a newly accepted order for matching once the transaction that created it commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderAccepted(OrderAcceptedEvent event) {
+        engineShards.publish(CommandType.NEW_ORDER, event.assetName(), event.orderId(), 0L, null, null);
+    }
+
+    public void matchAndWait(String assetName, Long orderId) {
+        publishAndWait(CommandType.MATCH, assetName, orderId, 0L, null);
+    }
+
+    public boolean cancel(String assetName, Long orderId, Long customerId) {
+        return (Boolean) publishAndWait(CommandType.CANCEL, assetName, orderId, customerId, null);
+    }
+
+    /**
+     * Cancels the PENDING orders the filter matches. One command goes to the shard of every asset involved,
+     * the shards cancel their part in parallel and the total number of canceled orders is returned.
+     */
+    public long massCancel(MassCancelRequestDTO filter) {
+        List<String> assetNames = filter.getAssetName() != null
+                ? List.of(filter.getAssetName())
+                : orderRepository.findPendingAssetNames(filter.getCustomerId());
+        List<CompletableFuture<Object>> replies = new ArrayList<>(assetNames.size());
+        for (String assetName : assetNames) {
+            CompletableFuture<Object> reply = new CompletableFuture<>();
+            engineShards.publish(CommandType.MASS_CANCEL, assetName, 0L, 0L, filter, reply);
+            replies.add(reply);
+        }
+        long canceled = 0;
+        for (CompletableFuture<Object> reply : replies) {
+            canceled += (Long) await(reply);
+        }
+        return canceled;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<OrderResponseDTO> amend(String assetName, Long orderId, OrderUpdateDTO orderUpdateDTO) {
+        return (Optional<OrderResponseDTO>) publishAndWait(CommandType.AMEND, assetName, orderId, 0L, orderUpdateDTO);
+    }
+
+    /**
+     * Puts an asset into call-auction mode; orders entered from now on rest in the book until the
+     * auction is uncrossed.
+     */
+    public void openAuction(String assetName) {
+        auctionService.open(assetName);
+    }
+
+    public AuctionResultDTO uncross(String assetName) {
+        return (AuctionResultDTO) publishAndWait(CommandType.UNCROSS, assetName, 0L, 0L, null);
+    }
+
+    @Scheduled(fixedDelayString = "${engine.auction.interval:5s}", initialDelayString = "${engine.auction.interval:5s}")
+    public void uncrossScheduledAuctions() {
+        for (String assetName : auctionService.getScheduledAssets()) {
+            engineShards.publish(CommandType.UNCROSS, assetName, 0L, 0L, null, null);
+        }
+    }
+
+    private Object publishAndWait(CommandType type, String assetName, long orderId, long customerId, Object payload) {
+        CompletableFuture<Object> reply = new CompletableFuture<>();
+        engineShards.publish(type, assetName, orderId, customerId, payload, reply);
+        return await(reply);
+    }
+
+    private Object await(CompletableFuture<Object> reply) {
+        try {
+            return reply.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,52 +1,80 @@
 package com.dorukkazanc.orderservice.service;
 
 import com.dorukkazanc.orderservice.dto.DynamicRequestDTO;
+import com.dorukkazanc.orderservice.dto.MassCancelRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderBatchResultDTO;
 import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
 import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
 import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
-import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.engine.Balance;
+import com.dorukkazanc.orderservice.engine.PriceScale;
+import com.dorukkazanc.orderservice.engine.PriceScales;
 import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.entity.OrderView;
 import com.dorukkazanc.orderservice.enums.OrderSide;
 import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.event.OrderAcceptedEvent;
+import com.dorukkazanc.orderservice.event.OrdersCanceledEvent;
 import com.dorukkazanc.orderservice.exception.InsufficientAssetException;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
 import com.dorukkazanc.orderservice.repository.OrderRepository;
+import com.dorukkazanc.orderservice.repository.OrderViewRepository;
 import com.dorukkazanc.orderservice.utils.DynamicQueryBuilder;
 import com.dorukkazanc.orderservice.utils.PageableBuilder;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final AssetService assetService;
+    private final OrderBookService orderBookService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PriceScales priceScales;
+    private final CommandJournal commandJournal;
+    private final CustomerLocks customerLocks;
+    private final OrderWriter orderWriter;
+    private final OrderViewRepository orderViewRepository;
 
     public OrderResponseDTO createOrder(Long customerId, OrderRequestDTO orderRequestDTO) {
-        Asset asset;
+        // Check, reservation and insert of one customer's orders never interleave
+        customerLocks.lockUntilCompletion(customerId);
+
+        // Rejects prices finer than the asset's tick before anything is reserved
+        priceScales.forAsset(orderRequestDTO.getAssetName()).toTicks(orderRequestDTO.getPrice());
+
+        Balance balance;
         if(orderRequestDTO.getOrderSide().equals(OrderSide.BUY)) {
-            asset = assetService.getAssetByCustomerIdAndName(customerId, "TRY");
+            balance = assetService.getBalance(customerId, "TRY");
         }else {
-            asset = assetService.getAssetByCustomerIdAndName(customerId, orderRequestDTO.getAssetName());
+            balance = assetService.getBalance(customerId, orderRequestDTO.getAssetName());
         }
 
-        if(checkIfAssetIsNotSufficient(orderRequestDTO, asset)) {
+        if(checkIfAssetIsNotSufficient(orderRequestDTO, balance)) {
             throw new InsufficientAssetException("Insufficient asset for the order");
         }
 
         Order order = Order.builder()
-                .customerId(customerId.toString())
+                .customerId(customerId)
                 .assetName(orderRequestDTO.getAssetName())
                 .orderSide(orderRequestDTO.getOrderSide())
                 .size(orderRequestDTO.getSize())
@@ -55,11 +83,71 @@ public class OrderService {
                 .build();
         
         Order savedOrder = orderRepository.save(order);
-        assetService.updateAssetForOrder(savedOrder, asset);
+        assetService.updateAssetForOrder(savedOrder);
+        commandJournal.orderChanged(JournalRecordType.ORDER_ACCEPTED, savedOrder);
+        orderBookService.sync(savedOrder);
+        eventPublisher.publishEvent(new OrderAcceptedEvent(savedOrder.getId(), savedOrder.getAssetName()));
 
         return convertToResponseDTO(savedOrder);
     }
 
+    /**
+     * Creates a batch of orders for one customer in one transaction. Each order is checked against what the
+     * orders before it in the batch already reserved from the same balance; orders that do not fit, or fail
+     * validation, are rejected on their own and the rest are inserted together as JDBC batches.
+     */
+    public List<OrderBatchResultDTO> createOrders(Long customerId, List<OrderRequestDTO> orderRequests) {
+        customerLocks.lockUntilCompletion(customerId);
+
+        OrderBatchResultDTO[] results = new OrderBatchResultDTO[orderRequests.size()];
+        Map<String, Long> usable = new HashMap<>();
+        List<Order> orders = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < orderRequests.size(); i++) {
+            OrderRequestDTO orderRequest = orderRequests.get(i);
+            try {
+                long reservation = reservationFor(orderRequest);
+                String reservedAsset = orderRequest.getOrderSide() == OrderSide.BUY ? "TRY" : orderRequest.getAssetName();
+                long available = usable.computeIfAbsent(reservedAsset, assetName -> {
+                    Balance balance = assetService.getBalance(customerId, assetName);
+                    return balance != null ? balance.getUsableSize() : 0L;
+                });
+                if (available < reservation) {
+                    throw new InsufficientAssetException("Insufficient asset for the order");
+                }
+                usable.put(reservedAsset, available - reservation);
+            } catch (RuntimeException e) {
+                results[i] = OrderBatchResultDTO.builder().index(i).accepted(false).error(e.getMessage()).build();
+                continue;
+            }
+            orders.add(Order.builder()
+                    .customerId(customerId)
+                    .assetName(orderRequest.getAssetName())
+                    .orderSide(orderRequest.getOrderSide())
+                    .size(orderRequest.getSize())
+                    .price(orderRequest.getPrice())
+                    .status(OrderStatus.PENDING)
+                    .build());
+            indexes.add(i);
+        }
+
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        for (int i = 0; i < savedOrders.size(); i++) {
+            Order savedOrder = savedOrders.get(i);
+            assetService.updateAssetForOrder(savedOrder);
+            commandJournal.orderChanged(JournalRecordType.ORDER_ACCEPTED, savedOrder);
+            orderBookService.sync(savedOrder);
+            eventPublisher.publishEvent(new OrderAcceptedEvent(savedOrder.getId(), savedOrder.getAssetName()));
+            int index = indexes.get(i);
+            results[index] = OrderBatchResultDTO.builder()
+                    .index(index)
+                    .accepted(true)
+                    .order(convertToResponseDTO(savedOrder))
+                    .build();
+        }
+        return List.of(results);
+    }
+
     @Transactional(readOnly = true)
     public List<OrderResponseDTO> getAllOrders() {
         return orderRepository.findAll()
@@ -71,59 +159,133 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Optional<OrderResponseDTO> getOrderById(Long id) {
         return orderRepository.findById(id)
-                .map(this::convertToResponseDTO);
+                .map(orderWriter::overlay)
+                .map(this::convertToResponseDTO)
+                .or(() -> orderViewRepository.findById(id).map(this::convertToResponseDTO));
     }
     
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> searchOrdersByCustomerId(Long customerId, DynamicRequestDTO request) {
-        Specification<Order> spec = DynamicQueryBuilder.buildSpecification(request);
+        Specification<OrderView> spec = DynamicQueryBuilder.buildSpecification(request);
         
         Pageable pageable = PageableBuilder.build(request, "createdDate");
         
         if (spec != null) {
             spec = spec.and((root, query, criteriaBuilder) -> 
-                criteriaBuilder.equal(root.get("customerId"), customerId.toString()));
+                criteriaBuilder.equal(root.get("customerId"), customerId));
         } else {
             spec = (root, query, criteriaBuilder) -> 
-                criteriaBuilder.equal(root.get("customerId"), customerId.toString());
+                criteriaBuilder.equal(root.get("customerId"), customerId);
         }
         
-        Page<Order> orders = orderRepository.findAll(spec, pageable);
+        Page<OrderView> orders = orderViewRepository.findAll(spec, pageable);
         return orders.map(this::convertToResponseDTO);
     }
 
+    /**
+     * Amends the size or limit of a PENDING order. Under the customer's lock the reservation follows the
+     * amended order before anything else changes: an increase must fit the usable balance, a decrease is
+     * given back. The status is not amended; an order leaves the book by cancel or fill only.
+     */
     public Optional<OrderResponseDTO> updateOrder(Long id, OrderUpdateDTO orderUpdateDTO) {
         return orderRepository.findById(id)
+                .map(orderWriter::overlay)
                 .map(existingOrder -> {
-                    if (orderUpdateDTO.getSize() != null) {
-                        existingOrder.setSize(orderUpdateDTO.getSize());
+                    if (existingOrder.getStatus() != OrderStatus.PENDING) {
+                        throw new RuntimeException("Only pending orders can be amended");
                     }
-                    if (orderUpdateDTO.getPrice() != null) {
-                        existingOrder.setPrice(orderUpdateDTO.getPrice());
-                    }
-                    if (orderUpdateDTO.getStatus() != null) {
-                        existingOrder.setStatus(orderUpdateDTO.getStatus());
-                    }
-                    Order savedOrder = orderRepository.save(existingOrder);
-                    return convertToResponseDTO(savedOrder);
+                    OrderRequestDTO amended = OrderRequestDTO.builder()
+                            .assetName(existingOrder.getAssetName())
+                            .orderSide(existingOrder.getOrderSide())
+                            .size(orderUpdateDTO.getSize() != null ? orderUpdateDTO.getSize() : existingOrder.getSize())
+                            .price(orderUpdateDTO.getPrice() != null ? orderUpdateDTO.getPrice() : existingOrder.getPrice())
+                            .build();
+
+                    customerLocks.lockUntilCompletion(existingOrder.getCustomerId());
+                    // Also rejects prices finer than the asset's tick before the reservation is touched
+                    assetService.updateAssetForAmend(existingOrder, reservationFor(amended));
+
+                    existingOrder.setSize(amended.getSize());
+                    existingOrder.setPrice(amended.getPrice());
+                    orderWriter.save(existingOrder);
+                    orderBookService.sync(existingOrder);
+                    commandJournal.orderChanged(JournalRecordType.ORDER_AMENDED, existingOrder);
+                    return convertToResponseDTO(existingOrder);
                 });
     }
 
     public boolean deleteOrder(Long id, Long customerId) {
-        Optional<Order> order = orderRepository.findOrderByIdAndCustomerId(id, customerId.toString());
+        Optional<Order> order = orderRepository.findOrderByIdAndCustomerId(id, customerId)
+                .map(orderWriter::overlay);
 
         if (order.isPresent() && order.get().getStatus() == OrderStatus.PENDING) {
+            orderBookService.cancel(order.get());
+            assetService.releaseReservation(order.get());
             order.get().setStatus(OrderStatus.CANCELED);
-            orderRepository.save(order.get());
+            orderWriter.save(order.get());
+            commandJournal.orderChanged(JournalRecordType.ORDER_CANCELED, order.get());
+            eventPublisher.publishEvent(new OrdersCanceledEvent(List.of(id)));
             return true;
         }
         return false;
     }
 
+    /**
+     * Cancels every PENDING order of one asset the filter matches, on the shard that owns the asset. The
+     * orders are flipped with one set-based update and their reservations released in the same transaction,
+     * which nets them into one balance change per customer and asset. Returns how many were canceled.
+     */
+    public long cancelOrders(String assetName, MassCancelRequestDTO filter) {
+        // Queued write-behind states would otherwise land on top of the update
+        orderWriter.flush();
+        List<Order> orders = orderRepository.findAll(pendingOrdersMatching(assetName, filter));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        int canceled = orderRepository.cancelPendingOrders(orderIds, now);
+        if (canceled != orders.size()) {
+            throw new RuntimeException("Orders of " + assetName + " changed during mass cancel, expected "
+                    + orders.size() + " but canceled " + canceled);
+        }
+        for (Order order : orders) {
+            order.setStatus(OrderStatus.CANCELED);
+            order.setLastModifiedDate(now);
+            orderBookService.cancel(order);
+            assetService.releaseReservation(order);
+            commandJournal.orderChanged(JournalRecordType.ORDER_CANCELED, order);
+        }
+        eventPublisher.publishEvent(new OrdersCanceledEvent(orderIds));
+        log.info("Mass cancel canceled {} {} orders", canceled, assetName);
+        return canceled;
+    }
+
+    private Specification<Order> pendingOrdersMatching(String assetName, MassCancelRequestDTO filter) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.equal(root.get("status"), OrderStatus.PENDING));
+            predicates.add(criteriaBuilder.equal(root.get("assetName"), assetName));
+            if (filter.getCustomerId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("customerId"), filter.getCustomerId()));
+            }
+            if (filter.getOrderSide() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("orderSide"), filter.getOrderSide()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     public List<OrderResponseDTO> getOrdersByOrderSide(OrderSide orderSide) {
-        return orderRepository.findOrdersByOrderSide(orderSide)
+        return orderRepository.findOrdersByOrderSideAndStatus(orderSide, OrderStatus.PENDING)
                 .stream()
-                .filter(order -> order.getStatus() == OrderStatus.PENDING)
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -143,19 +305,35 @@ public class OrderService {
         );
     }
 
-    private boolean checkIfAssetIsNotSufficient(OrderRequestDTO orderRequest, Asset asset) {
-        if (asset == null) {
+    private OrderResponseDTO convertToResponseDTO(OrderView order) {
+        return OrderResponseDTO.builder()
+                .id(order.getId())
+                .customerId(order.getCustomerId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize())
+                .price(order.getPrice())
+                .status(order.getStatus())
+                .createdDate(order.getCreatedDate())
+                .lastModifiedDate(order.getLastModifiedDate())
+                .build();
+    }
+
+    private boolean checkIfAssetIsNotSufficient(OrderRequestDTO orderRequest, Balance balance) {
+        if (balance == null) {
             return true;
         }
+        return balance.getUsableSize() < reservationFor(orderRequest);
+    }
 
+    /**
+     * What the order would hold back: cash at its limit for a buy, the shares for a sell.
+     */
+    private long reservationFor(OrderRequestDTO orderRequest) {
         if (orderRequest.getOrderSide().equals(OrderSide.BUY)) {
-            BigDecimal totalCost = orderRequest.getPrice().multiply(BigDecimal.valueOf(orderRequest.getSize()));
-            return asset.getUsableSize() < totalCost.longValue();
-
-        } else if (orderRequest.getOrderSide().equals(OrderSide.SELL)) {
-            return asset.getUsableSize() < orderRequest.getSize();
+            PriceScale priceScale = priceScales.forAsset(orderRequest.getAssetName());
+            return priceScale.cash(priceScale.toTicks(orderRequest.getPrice()), orderRequest.getSize());
         }
-        
-        return false;
+        return orderRequest.getSize();
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.journal.JournalWriter;
+import com.dorukkazanc.orderservice.journal.OrderEntry;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Persists changes to existing orders. In the default synchronous mode that is a plain save inside the
+ * caller's transaction.
+ * <p>
+ * With {@code engine.write-behind.enabled} the in-memory state is authoritative: a changed order is detached
+ * instead of saved, and the state the command journal records for it on commit is queued here. A background
+ * writer coalesces the queue to the latest state per order and upserts it with JDBC batch statements once
+ * {@code engine.write-behind.batch-size} orders are waiting or every {@code engine.write-behind.max-delay}.
+ * Until then {@link #overlay} serves the queued state to readers in the engine path.
+ * <p>
+ * Durability contract: a change is acknowledged once its journal record is written. Engine commands reply
+ * only after the journal has been flushed at the end of their batch; the database is a projection that can
+ * lag by up to {@code max-delay} and is rebuilt from the journal on restart. New orders are still inserted
+ * in the command's transaction.
+ */
+@Component
+@Slf4j
+public class OrderWriter {
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EngineProperties.WriteBehind settings;
+    private final Queue<OrderEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Long, OrderEntry> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private Map<Long, OrderEntry> unwritten = new LinkedHashMap<>();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderWriter(OrderRepository orderRepository, JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager, EngineProperties engineProperties,
+                       Optional<JournalWriter> journalWriter) {
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.settings = engineProperties.getWriteBehind();
+        if (settings.isEnabled() && journalWriter.isEmpty()) {
+            throw new IllegalStateException("engine.write-behind.enabled requires engine.journal.enabled");
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "order-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Write-behind enabled for orders, batch size {}, max delay {}", settings.getBatchSize(), settings.getMaxDelay());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join();
+        flush();
+    }
+
+    public boolean isWriteBehind() {
+        return settings.isEnabled();
+    }
+
+    public void save(Order order) {
+        if (!settings.isEnabled()) {
+            orderRepository.save(order);
+            return;
+        }
+        order.setLastModifiedDate(LocalDateTime.now());
+        entityManager.detach(order);
+    }
+
+    public void saveAll(Collection<Order> orders) {
+        if (!settings.isEnabled()) {
+            orderRepository.saveAll(orders);
+            return;
+        }
+        orders.forEach(this::save);
+    }
+
+    /**
+     * Brings an order read from the database up to the state still waiting in the queue, if any. The order is
+     * detached first so the newer state is not written by the caller's transaction.
+     */
+    public Order overlay(Order order) {
+        OrderEntry entry = pending.get(order.getId());
+        if (entry == null) {
+            return order;
+        }
+        entityManager.detach(order);
+        order.setSize(entry.size());
+        order.setPrice(entry.price());
+        order.setStatus(entry.status());
+        order.setLastModifiedDate(entry.lastModifiedDate());
+        return order;
+    }
+
+    /**
+     * Called with the journaled state of an order once its record is in the journal.
+     */
+    public void submit(OrderEntry entry) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        pending.put(entry.id(), entry);
+        queue.add(entry);
+        if (queued.incrementAndGet() >= settings.getBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Writes everything queued so far before returning. Used before work that reads orders straight from the
+     * database, so a failed write is thrown rather than swallowed: the entries stay queued for the next
+     * attempt and the caller must not go on reading stale rows.
+     */
+    public void flush() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        synchronized (writeLock) {
+            OrderEntry entry;
+            while ((entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                unwritten.put(entry.id(), entry);
+            }
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            List<OrderEntry> entries = new ArrayList<>(unwritten.values());
+            try {
+                for (int from = 0; from < entries.size(); from += settings.getBatchSize()) {
+                    List<OrderEntry> batch = entries.subList(from, Math.min(entries.size(), from + settings.getBatchSize()));
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                            JournalReplayService.UPSERT_ORDER, batch.stream().map(JournalReplayService::orderRow).toList()));
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not write {} orders, keeping them for the next attempt: {}", entries.size(), e.getMessage());
+                throw new RuntimeException("Could not write " + entries.size() + " queued orders", e);
+            }
+            unwritten = new LinkedHashMap<>();
+            entries.forEach(written -> pending.remove(written.id(), written));
+        }
+    }
+
+    private void run() {
+        long maxDelayNanos = settings.getMaxDelay().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, maxDelayNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Write-behind flush failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
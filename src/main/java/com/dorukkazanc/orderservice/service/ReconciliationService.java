@@ -0,0 +1,269 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.BalanceDiscrepancyDTO;
+import com.dorukkazanc.orderservice.dto.ReconciliationReportDTO;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks that every balance holds back exactly what the PENDING orders of its customer reserve against it:
+ * {@code size - usableSize} must equal the cash at the limit of the customer's open buys for TRY, and the open
+ * size of their sells for any other asset.
+ * <p>
+ * Customers are walked in key order in chunks of {@code engine.reconciliation.chunk-size}; for each chunk only
+ * its asset rows and PENDING orders are read, in one read-only snapshot, and checked on a dedicated fork-join
+ * pool while the next chunk is read. At most two chunks per worker are in flight, so memory stays bounded by
+ * the chunk size rather than the table size. Nothing is locked, trading keeps running.
+ * <p>
+ * The database trails the resident ledger by the settlement window and write-behind, so a balance that does
+ * not add up is only reported if it still does not after both have been flushed and its customer re-read.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+    private static final String CUSTOMER_IDS =
+            "SELECT DISTINCT customer_id FROM assets WHERE customer_id > ? ORDER BY customer_id LIMIT ?";
+    private static final String ASSETS =
+            "SELECT id, customer_id, asset_name, size, usable_size FROM assets WHERE customer_id BETWEEN ? AND ?";
+    private static final String PENDING_ORDERS = "SELECT id, customer_id, asset_name, order_side, size, price "
+            + "FROM orders WHERE status = 'PENDING' AND customer_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final LedgerService ledgerService;
+    private final OrderWriter orderWriter;
+    private final EngineProperties.Reconciliation settings;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReportDTO lastReport;
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 LedgerService ledgerService, OrderWriter orderWriter, EngineProperties engineProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.ledgerService = ledgerService;
+        this.orderWriter = orderWriter;
+        this.settings = engineProperties.getReconciliation();
+        this.pool = new ForkJoinPool(settings.resolveParallelism());
+    }
+
+    @Scheduled(fixedDelayString = "${engine.reconciliation.interval:1h}", initialDelayString = "${engine.reconciliation.interval:1h}")
+    public void reconcileScheduled() {
+        if (!settings.isScheduled() || running.get()) {
+            return;
+        }
+        reconcile();
+    }
+
+    public Optional<ReconciliationReportDTO> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    public ReconciliationReportDTO reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Reconciliation is already running");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Totals totals = new Totals();
+            checkAllChunks(totals);
+
+            List<BalanceDiscrepancyDTO> confirmed = confirm(new ArrayList<>(totals.suspects));
+            confirmed.sort(Comparator.comparing(BalanceDiscrepancyDTO::getCustomerId)
+                    .thenComparing(BalanceDiscrepancyDTO::getAssetName));
+            ReconciliationReportDTO report = ReconciliationReportDTO.builder()
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .customersChecked(totals.customers.sum())
+                    .balancesChecked(totals.balances.sum())
+                    .ordersChecked(totals.orders.sum())
+                    .discrepancyCount((long) confirmed.size())
+                    .discrepancies(List.copyOf(confirmed.subList(0, Math.min(confirmed.size(), settings.getReportLimit()))))
+                    .build();
+            lastReport = report;
+            if (confirmed.isEmpty()) {
+                log.info("Reconciled {} balances of {} customers against {} pending orders, no discrepancies",
+                        report.getBalancesChecked(), report.getCustomersChecked(), report.getOrdersChecked());
+            } else {
+                log.warn("Reconciled {} balances of {} customers against {} pending orders, {} discrepancies",
+                        report.getBalancesChecked(), report.getCustomersChecked(), report.getOrdersChecked(), confirmed.size());
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private void checkAllChunks(Totals totals) {
+        int inFlightLimit = pool.getParallelism() * 2;
+        Semaphore inFlight = new Semaphore(inFlightLimit);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        long after = 0;
+        try {
+            while (failure.get() == null) {
+                List<Long> customerIds = jdbcTemplate.queryForList(CUSTOMER_IDS, Long.class, after, settings.getChunkSize());
+                if (customerIds.isEmpty()) {
+                    break;
+                }
+                long first = customerIds.get(0);
+                long last = customerIds.get(customerIds.size() - 1);
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        totals.add(checkRange(first, last));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                after = last;
+            }
+            inFlight.acquire(inFlightLimit);
+            inFlight.release(inFlightLimit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconciliation was interrupted", e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Flushes what the database has not seen yet and checks the customers of the suspects again.
+     */
+    private List<BalanceDiscrepancyDTO> confirm(List<BalanceDiscrepancyDTO> suspects) {
+        if (suspects.isEmpty()) {
+            return suspects;
+        }
+        ledgerService.flushSettlements();
+        orderWriter.flush();
+        Set<Long> customerIds = new HashSet<>();
+        suspects.forEach(suspect -> customerIds.add(suspect.getCustomerId()));
+        List<BalanceDiscrepancyDTO> confirmed = new ArrayList<>();
+        for (long customerId : customerIds) {
+            confirmed.addAll(checkRange(customerId, customerId).discrepancies());
+        }
+        return confirmed;
+    }
+
+    private ChunkResult checkRange(long firstCustomerId, long lastCustomerId) {
+        return snapshotTemplate.execute(status -> check(
+                jdbcTemplate.query(ASSETS, (rs, rowNum) -> new AssetRow(rs.getLong("id"), rs.getLong("customer_id"),
+                        rs.getString("asset_name"), rs.getLong("size"), rs.getLong("usable_size")),
+                        firstCustomerId, lastCustomerId),
+                jdbcTemplate.query(PENDING_ORDERS, (rs, rowNum) -> Order.builder()
+                                .id(rs.getLong("id"))
+                                .customerId(rs.getLong("customer_id"))
+                                .assetName(rs.getString("asset_name"))
+                                .orderSide(OrderSide.valueOf(rs.getString("order_side")))
+                                .size(rs.getLong("size"))
+                                .price(rs.getBigDecimal("price"))
+                                .build(),
+                        firstCustomerId, lastCustomerId)));
+    }
+
+    /**
+     * Compares the balances of a set of customers with what their pending orders reserve. Orders reserving
+     * against a balance the customer has no row for are reported with a zero balance.
+     */
+    ChunkResult check(List<AssetRow> assets, List<Order> pendingOrders) {
+        Map<BalanceKey, Reserved> reserved = new HashMap<>();
+        for (Order order : pendingOrders) {
+            BalanceKey key = new BalanceKey(order.getCustomerId(), ledgerService.reservedAssetName(order));
+            Reserved total = reserved.computeIfAbsent(key, ignored -> new Reserved());
+            total.size += ledgerService.reservationFor(order, order.getSize());
+            total.orders++;
+        }
+
+        Set<Long> customerIds = new HashSet<>();
+        List<BalanceDiscrepancyDTO> discrepancies = new ArrayList<>();
+        for (AssetRow asset : assets) {
+            customerIds.add(asset.customerId());
+            Reserved total = reserved.remove(new BalanceKey(asset.customerId(), asset.assetName()));
+            long reservedSize = total != null ? total.size : 0;
+            if (asset.size() - asset.usableSize() != reservedSize) {
+                discrepancies.add(discrepancy(asset.customerId(), asset.assetName(), asset.id(), asset.size(),
+                        asset.usableSize(), total));
+            }
+        }
+        reserved.forEach((key, total) -> discrepancies.add(discrepancy(key.customerId(), key.assetName(), null, 0, 0, total)));
+        return new ChunkResult(customerIds.size(), assets.size(), pendingOrders.size(), discrepancies);
+    }
+
+    private BalanceDiscrepancyDTO discrepancy(long customerId, String assetName, Long assetId, long size,
+                                              long usableSize, Reserved total) {
+        return BalanceDiscrepancyDTO.builder()
+                .customerId(customerId)
+                .assetName(assetName)
+                .assetId(assetId)
+                .size(size)
+                .usableSize(usableSize)
+                .heldSize(size - usableSize)
+                .reservedSize(total != null ? total.size : 0)
+                .pendingOrders(total != null ? total.orders : 0)
+                .build();
+    }
+
+    record AssetRow(long id, long customerId, String assetName, long size, long usableSize) {
+    }
+
+    record ChunkResult(int customers, int balances, int orders, List<BalanceDiscrepancyDTO> discrepancies) {
+    }
+
+    private record BalanceKey(long customerId, String assetName) {
+    }
+
+    private static class Reserved {
+        private long size;
+        private int orders;
+    }
+
+    private static class Totals {
+        private final LongAdder customers = new LongAdder();
+        private final LongAdder balances = new LongAdder();
+        private final LongAdder orders = new LongAdder();
+        private final Queue<BalanceDiscrepancyDTO> suspects = new ConcurrentLinkedQueue<>();
+
+        void add(ChunkResult result) {
+            customers.add(result.customers());
+            balances.add(result.balances());
+            orders.add(result.orders());
+            suspects.addAll(result.discrepancies());
+        }
+    }
+}
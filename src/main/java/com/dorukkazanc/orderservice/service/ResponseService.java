@@ -19,6 +19,11 @@ public class ResponseService {
                 .body(BaseResponse.success(data, message));
     }
 
+    public <T> ResponseEntity<BaseResponse<T>> accepted(T data, String message) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(BaseResponse.success(data, message));
+    }
+
     public <T> ResponseEntity<BaseResponse<T>> error(String message, HttpStatus status) {
         return ResponseEntity.status(status)
                 .body(BaseResponse.error(message));
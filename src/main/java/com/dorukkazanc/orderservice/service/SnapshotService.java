@@ -0,0 +1,81 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.journal.JournalReader;
+import com.dorukkazanc.orderservice.journal.JournalWriter;
+import com.dorukkazanc.orderservice.journal.SnapshotState;
+import com.dorukkazanc.orderservice.journal.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Writes periodic snapshots of the order books and balances. The snapshot is not read from the live books
+ * or the database: a compacted copy of the journal is kept here and brought forward by folding in the
+ * records written since the last run, up to a sequence barrier taken at the start of the run. Matching
+ * never waits on it and the result is exactly the state at the barrier.
+ * <p>
+ * Once a snapshot is written the journal segments that only hold records the oldest retained snapshot
+ * already covers are deleted, so the journal on disk stays bounded by the snapshot interval.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotService {
+    private final Optional<JournalWriter> journalWriter;
+    private final Optional<SnapshotStore> snapshotStore;
+    private SnapshotState state;
+
+    public boolean isEnabled() {
+        return journalWriter.isPresent() && snapshotStore.isPresent();
+    }
+
+    /**
+     * Newest intact snapshot, or an empty state when there is none.
+     */
+    public SnapshotState loadLatest() {
+        try {
+            return snapshotStore.get().loadLatest().orElseGet(SnapshotState::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load snapshot", e);
+        }
+    }
+
+    /**
+     * Hands over the state recovered at startup; snapshots continue from there.
+     */
+    public synchronized void resume(SnapshotState recovered) {
+        state = recovered;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.snapshot.interval:60s}", initialDelayString = "${engine.snapshot.interval:60s}")
+    public synchronized void takeSnapshot() {
+        if (!isEnabled() || state == null) {
+            return;
+        }
+        JournalWriter writer = journalWriter.get();
+        long barrier = writer.getNextSequence() - 1;
+        if (barrier <= state.getSequence()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // A snapshot must never cover records the journal could still lose
+            writer.flush();
+            new JournalReader(writer.getDirectory()).replay(state.getSequence(), barrier, state::apply);
+            Path path = snapshotStore.get().write(state);
+            int deleted = writer.deleteSegmentsUpTo(snapshotStore.get().oldestSequence());
+            log.info("Wrote snapshot {} with {} open orders and {} assets in {} ms, deleted {} journal segments",
+                    path.getFileName(), state.getOpenOrders().size(), state.getAssets().size(),
+                    (System.nanoTime() - start) / 1_000_000, deleted);
+        } catch (IOException e) {
+            log.error("Snapshot at sequence {} failed: {}", barrier, e.getMessage(), e);
+        }
+    }
+}
@@ -84,7 +84,32 @@ public class DynamicQueryBuilder {
         
         try {
             Class<?> fieldType = root.get(fieldName).getJavaType();
-            
+
+            if (value instanceof List<?> values) {
+                List<Object> converted = new ArrayList<>(values.size());
+                for (Object element : values) {
+                    converted.add(convertValue(fieldType, element));
+                }
+                return converted;
+            }
+            return convertValue(fieldType, value);
+        } catch (Exception e) {
+            return value;
+        }
+    }
+
+    /**
+     * Numeric keys such as {@code customerId} arrive as JSON numbers or strings, both are bound as the
+     * attribute's own type so the comparison stays numeric and can use its index.
+     */
+    private static Object convertValue(Class<?> fieldType, Object value) {
+        if (value == null) return null;
+
+        try {
+            if (fieldType == Long.class && value instanceof Number number) {
+                return number.longValue();
+            }
+
             if (fieldType == LocalDateTime.class && value instanceof String) {
                 return LocalDateTime.parse((String) value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
             }
@@ -0,0 +1,65 @@
+-- Schema and seed data as they stood before migrations were introduced
+
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE assets_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE customers (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    username           VARCHAR(255),
+    password           VARCHAR(255),
+    active             BOOLEAN,
+    role               VARCHAR(255),
+    created_date       TIMESTAMP(6),
+    last_modified_date TIMESTAMP(6)
+);
+
+CREATE TABLE assets (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    customer_id        VARCHAR(255),
+    asset_name         VARCHAR(255),
+    size               BIGINT,
+    usable_size        BIGINT,
+    version            BIGINT DEFAULT 0 NOT NULL,
+    created_date       TIMESTAMP(6),
+    last_modified_date TIMESTAMP(6)
+);
+
+CREATE TABLE orders (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    customer_id        VARCHAR(255),
+    asset_name         VARCHAR(255),
+    order_side         VARCHAR(255),
+    size               BIGINT,
+    price              NUMERIC(38, 2),
+    status             VARCHAR(255),
+    created_date       TIMESTAMP(6),
+    last_modified_date TIMESTAMP(6)
+);
+
+-- Insert mock users
+INSERT INTO customers (id, username, password, active, role) VALUES
+    (1, 'admin', '123', true, 'ADMIN'),
+    (2, 'user', '123', true, 'CUSTOMER'),
+    (3, 'alice', '123', true, 'CUSTOMER');
+
+-- Insert TRY assets for all users (required for trading)
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size) VALUES
+    (1, '1', 'TRY', 1000000, 1000000),
+    (2, '2', 'TRY', 50000, 50000),
+    (3, '3', 'TRY', 75000, 75000);
+
+-- Insert stock assets for regular users
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size) VALUES
+    (4, '2', 'AAPL', 10, 10),
+    (5, '2', 'TSLA', 5, 5),
+    (6, '2', 'GOOGL', 2, 2),
+    (7, '2', 'MSFT', 15, 15),
+    (8, '3', 'AAPL', 20, 20),
+    (9, '3', 'AMZN', 3, 3),
+    (10, '3', 'NFLX', 8, 8),
+    (11, '3', 'META', 12, 10);
+
+-- Seed rows carry explicit ids, start the id sequences after them
+ALTER SEQUENCE customers_seq RESTART WITH 4;
+ALTER SEQUENCE assets_seq RESTART WITH 12;
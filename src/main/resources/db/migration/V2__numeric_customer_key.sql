@@ -0,0 +1,12 @@
+-- customer_id held Customer.id as a string. Convert it to the numeric key in place, tie it to customers and
+-- index it together with the columns per-customer queries filter and sort on.
+
+ALTER TABLE assets ALTER COLUMN customer_id SET DATA TYPE BIGINT;
+ALTER TABLE assets ALTER COLUMN customer_id SET NOT NULL;
+ALTER TABLE assets ADD CONSTRAINT fk_assets_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+CREATE INDEX idx_assets_customer_asset ON assets (customer_id, asset_name);
+
+ALTER TABLE orders ALTER COLUMN customer_id SET DATA TYPE BIGINT;
+ALTER TABLE orders ALTER COLUMN customer_id SET NOT NULL;
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id);
+CREATE INDEX idx_orders_customer_created ON orders (customer_id, created_date);
@@ -0,0 +1,15 @@
+-- One index per hot access path, leading with the equality columns and followed by the sort columns so the
+-- rows come back in order without a sort. QueryPlanTest fails when one of these queries falls back to a scan.
+
+-- (customer_id, asset_name) identifies a balance; enforce it and serve the per-customer lookups from it
+DROP INDEX idx_assets_customer_asset;
+CREATE UNIQUE INDEX uk_assets_customer_asset ON assets (customer_id, asset_name);
+
+-- Order book rebuild at startup: every PENDING order in arrival order
+CREATE INDEX idx_orders_status_created ON orders (status, created_date, id);
+
+-- Lazy load of one asset's order book
+CREATE INDEX idx_orders_asset_status_created ON orders (asset_name, status, created_date, id);
+
+-- Open orders of one side, best price first
+CREATE INDEX idx_orders_side_status_price ON orders (order_side, status, price, created_date);
@@ -0,0 +1,26 @@
+-- Filled and canceled orders are moved out of the live table once they have settled, so orders stays sized by
+-- the open orders. Both tiers are searched together through orders_all.
+
+CREATE TABLE orders_history (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    customer_id        BIGINT       NOT NULL,
+    asset_name         VARCHAR(255),
+    order_side         VARCHAR(255),
+    size               BIGINT,
+    price              NUMERIC(38, 2),
+    status             VARCHAR(255),
+    created_date       TIMESTAMP(6),
+    last_modified_date TIMESTAMP(6),
+    archived_date      TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_orders_history_customer_created ON orders_history (customer_id, created_date);
+
+CREATE VIEW orders_all AS
+SELECT id, customer_id, asset_name, order_side, size, price, status, created_date, last_modified_date,
+       CAST(NULL AS TIMESTAMP(6)) AS archived_date
+FROM orders
+UNION ALL
+SELECT id, customer_id, asset_name, order_side, size, price, status, created_date, last_modified_date,
+       archived_date
+FROM orders_history;
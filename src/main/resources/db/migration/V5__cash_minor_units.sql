@@ -0,0 +1,4 @@
+-- Cash was held in whole TRY, so fills whose notional was not a whole amount lost the fraction. Keep it in
+-- kuruş (1/100 TRY), the precision prices are stored with, so every fill settles exactly.
+
+UPDATE assets SET size = size * 100, usable_size = usable_size * 100 WHERE asset_name = 'TRY';
@@ -1,13 +1,82 @@
 package com.dorukkazanc.orderservice;
 
+import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
+import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.exception.CustomerInUseException;
+import com.dorukkazanc.orderservice.service.AdminService;
+import com.dorukkazanc.orderservice.service.LedgerService;
+import com.dorukkazanc.orderservice.service.OrderService;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 class OrderServiceApplicationTests {
 
+	@Autowired
+	private AdminService adminService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void deleteCustomer_ShouldRefuseCustomerWithAssets() {
+		assertThrows(CustomerInUseException.class, () -> adminService.deleteCustomer(2L));
+
+		assertEquals(2L, adminService.getCustomerById(2L).getId());
+	}
+
+	@Test
+	void updateOrder_ShouldMoveReservationWithAdminAmendAndCancel() {
+		long usableCash = ledgerService.get(3L, "TRY").getUsableSize();
+		OrderResponseDTO order = orderService.createOrder(3L, OrderRequestDTO.builder()
+				.assetName("AMZN")
+				.orderSide(OrderSide.BUY)
+				.size(2L)
+				.price(new BigDecimal("10.00"))
+				.build());
+		assertEquals(usableCash - 2_000, ledgerService.get(3L, "TRY").getUsableSize());
+
+		assertThrows(IllegalArgumentException.class, () -> adminService.updateOrder(order.getId(),
+				OrderUpdateDTO.builder().status(OrderStatus.MATCHED).build()));
+		assertEquals(5L, adminService.updateOrder(order.getId(), OrderUpdateDTO.builder().size(5L).build()).getSize());
+		assertEquals(usableCash - 5_000, ledgerService.get(3L, "TRY").getUsableSize());
+
+		OrderResponseDTO canceled = adminService.updateOrder(order.getId(),
+				OrderUpdateDTO.builder().status(OrderStatus.CANCELED).build());
+
+		assertEquals(OrderStatus.CANCELED, canceled.getStatus());
+		assertEquals(usableCash, ledgerService.get(3L, "TRY").getUsableSize());
+	}
+
+	@Test
+	void deleteOrder_ShouldGiveReservationBack() {
+		long usableShares = ledgerService.get(3L, "NFLX").getUsableSize();
+		OrderResponseDTO order = orderService.createOrder(3L, OrderRequestDTO.builder()
+				.assetName("NFLX")
+				.orderSide(OrderSide.SELL)
+				.size(3L)
+				.price(new BigDecimal("500.00"))
+				.build());
+		assertEquals(usableShares - 3, ledgerService.get(3L, "NFLX").getUsableSize());
+
+		adminService.deleteOrder(order.getId());
+
+		assertEquals(usableShares, ledgerService.get(3L, "NFLX").getUsableSize());
+	}
+
 }
@@ -0,0 +1,70 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+
+    private BalanceLedger ledger;
+    private Balance cash;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BalanceLedger();
+        cash = new Balance(1L, 123L, "TRY", 1000L, 1000L, null);
+        ledger.put(cash);
+    }
+
+    @Test
+    void reserve_ShouldHoldAmountForOrder() {
+        assertTrue(ledger.reserve(7L, cash, 600L));
+
+        assertEquals(400L, cash.getUsableSize());
+        assertEquals(1000L, cash.getSize());
+        assertEquals(600L, ledger.getReservation(7L).getAmount());
+    }
+
+    @Test
+    void reserve_ShouldFailWithoutChanges_WhenUsableSizeIsShort() {
+        assertTrue(ledger.reserve(7L, cash, 600L));
+
+        assertFalse(ledger.reserve(8L, cash, 500L));
+
+        assertEquals(400L, cash.getUsableSize());
+        assertNull(ledger.getReservation(8L));
+    }
+
+    @Test
+    void release_ShouldReturnWhatIsLeftOfReservation() {
+        ledger.reserve(7L, cash, 600L);
+        ledger.adjustReservation(7L, cash, -250L);
+
+        assertEquals(350L, ledger.release(7L));
+
+        assertEquals(750L, cash.getUsableSize());
+        assertNull(ledger.getReservation(7L));
+        assertEquals(0L, ledger.release(7L));
+    }
+
+    @Test
+    void adjustReservation_ShouldDropReservationReachingZero() {
+        ledger.reserve(7L, cash, 600L);
+
+        ledger.adjustReservation(7L, cash, -600L);
+
+        assertNull(ledger.getReservation(7L));
+    }
+
+    @Test
+    void getOrCreate_ShouldOnlyCreateMissingBalances() {
+        Balance shares = ledger.getOrCreate(123L, "BTC", (customerId, assetName) -> new Balance(2L, customerId, assetName, 0L, 0L, null));
+
+        assertSame(cash, ledger.getOrCreate(123L, "TRY", (customerId, assetName) -> {
+            throw new AssertionError("should not create");
+        }));
+        assertSame(shares, ledger.get(123L, "BTC"));
+        assertEquals(2, ledger.size());
+    }
+}
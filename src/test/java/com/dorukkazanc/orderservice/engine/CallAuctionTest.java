@@ -0,0 +1,68 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallAuctionTest {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook("AAPL");
+    }
+
+    @Test
+    void uncross_ShouldClearAtPriceMaximisingVolume() {
+        orderBook.add(new BookOrder(1L, 1L, OrderSide.BUY, 10300L, 5L));
+        orderBook.add(new BookOrder(2L, 2L, OrderSide.BUY, 10200L, 10L));
+        orderBook.add(new BookOrder(3L, 3L, OrderSide.BUY, 10000L, 10L));
+        orderBook.add(new BookOrder(4L, 4L, OrderSide.SELL, 9900L, 4L));
+        orderBook.add(new BookOrder(5L, 5L, OrderSide.SELL, 10100L, 8L));
+        orderBook.add(new BookOrder(6L, 6L, OrderSide.SELL, 10400L, 10L));
+
+        AuctionResult result = CallAuction.uncross(orderBook);
+
+        // Demand 15 against supply 12 holds from 101.00 to 102.00, the price is the middle of that range
+        assertEquals(12L, result.volume());
+        assertEquals(10150L, result.clearingPriceTicks());
+        assertEquals(3, result.trades().size());
+        assertEquals(new AuctionTrade(1L, 1L, 1L, 4L, 4L, 0L, 4L), result.trades().get(0));
+        assertEquals(new AuctionTrade(1L, 1L, 0L, 5L, 5L, 7L, 1L), result.trades().get(1));
+        assertEquals(new AuctionTrade(2L, 2L, 3L, 5L, 5L, 0L, 7L), result.trades().get(2));
+
+        assertEquals(10200L, orderBook.bestBid());
+        assertEquals(10400L, orderBook.bestAsk());
+        assertEquals(3L, orderBook.get(2L).getRemainingSize());
+        assertNull(orderBook.get(1L));
+    }
+
+    @Test
+    void uncross_ShouldDoNothingWhenBookDoesNotCross() {
+        orderBook.add(new BookOrder(1L, 1L, OrderSide.BUY, 10000L, 5L));
+        orderBook.add(new BookOrder(2L, 2L, OrderSide.SELL, 10100L, 5L));
+
+        AuctionResult result = CallAuction.uncross(orderBook);
+
+        assertNull(result.clearingPriceTicks());
+        assertTrue(result.trades().isEmpty());
+        assertEquals(2, orderBook.size());
+    }
+
+    @Test
+    void uncross_ShouldNotTradeOrdersOfSameCustomer() {
+        orderBook.add(new BookOrder(1L, 7L, OrderSide.BUY, 10000L, 5L));
+        orderBook.add(new BookOrder(2L, 7L, OrderSide.SELL, 10000L, 5L));
+        orderBook.add(new BookOrder(3L, 8L, OrderSide.SELL, 10000L, 2L));
+
+        AuctionResult result = CallAuction.uncross(orderBook);
+
+        assertEquals(10000L, result.clearingPriceTicks());
+        assertEquals(2L, result.volume());
+        assertEquals(3L, result.trades().get(0).sellOrderId());
+        assertEquals(5L, orderBook.get(2L).getRemainingSize());
+    }
+}
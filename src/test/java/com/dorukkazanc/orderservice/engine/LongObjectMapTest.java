@@ -0,0 +1,45 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+
+    @Test
+    void putGetRemove_ShouldBehaveLikeHashMapUnderChurn() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000) - 1_000L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void putIfAbsent_ShouldKeepExistingValue() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertNull(map.putIfAbsent(Long.MAX_VALUE, "first"));
+        assertEquals("first", map.putIfAbsent(Long.MAX_VALUE, "second"));
+        assertEquals("first", map.get(Long.MAX_VALUE));
+        assertTrue(map.containsKey(Long.MAX_VALUE));
+        assertFalse(map.containsKey(0L));
+    }
+}
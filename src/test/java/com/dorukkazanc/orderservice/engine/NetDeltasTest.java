@@ -0,0 +1,64 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetDeltasTest {
+
+    @Test
+    void add_ShouldNetFillsPerBalance() {
+        Balance takerCash = new Balance(1L, 1L, "TRY", 0L, 0L, null);
+        Balance takerShares = new Balance(2L, 1L, "BTC", 100L, 50L, null);
+        NetDeltas deltas = new NetDeltas();
+
+        for (int i = 0; i < 50; i++) {
+            boolean first = deltas.add(takerCash, 200L, 200L);
+            deltas.add(takerShares, -2L, 0L);
+            assertEquals(i == 0, first);
+        }
+
+        List<long[]> written = new ArrayList<>();
+        deltas.forEach((balance, sizeDelta, usableSizeDelta) -> written.add(new long[]{balance.getId(), sizeDelta, usableSizeDelta}));
+        assertEquals(2, deltas.size());
+        assertEquals(2, written.size());
+        written.sort((a, b) -> Long.compare(a[0], b[0]));
+        assertArrayEquals(new long[]{1L, 10_000L, 10_000L}, written.get(0));
+        assertArrayEquals(new long[]{2L, -100L, 0L}, written.get(1));
+    }
+
+    @Test
+    void forEach_ShouldSkipBalancesThatNetToZero() {
+        Balance cash = new Balance(1L, 1L, "TRY", 1000L, 1000L, null);
+        NetDeltas deltas = new NetDeltas();
+        deltas.add(cash, 0L, -451L);
+
+        NetDeltas released = new NetDeltas();
+        released.add(cash, 0L, 451L);
+        deltas.addAll(released);
+
+        deltas.forEach((balance, sizeDelta, usableSizeDelta) -> {
+            throw new AssertionError("nothing to write");
+        });
+        assertFalse(deltas.isEmpty());
+    }
+
+    @Test
+    void commit_ShouldLeaveOutChangesOfTransactionsInFlight() {
+        Balance cash = new Balance(1L, 1L, "TRY", 1000L, 1000L, null);
+        NetDeltas committing = new NetDeltas();
+        NetDeltas inFlight = new NetDeltas();
+        cash.apply(0L, -451L);
+        committing.add(cash, 0L, -451L);
+        cash.apply(-200L, -200L);
+        inFlight.add(cash, -200L, -200L);
+
+        long[] delta = committing.get(cash);
+        assertArrayEquals(new long[]{1000L, 549L}, cash.commit(delta[0], delta[1]));
+        assertEquals(349L, cash.getUsableSize());
+        assertArrayEquals(new long[2], new NetDeltas().get(cash));
+    }
+}
@@ -0,0 +1,119 @@
+package com.dorukkazanc.orderservice.engine;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook("AAPL");
+    }
+
+    @Test
+    void match_ShouldFillBestPriceFirstAndFifoWithinLevel() {
+        orderBook.add(new BookOrder(1L, 2L, OrderSide.SELL, 15100L, 5L));
+        orderBook.add(new BookOrder(2L, 3L, OrderSide.SELL, 15000L, 2L));
+        orderBook.add(new BookOrder(3L, 4L, OrderSide.SELL, 15000L, 2L));
+        orderBook.add(new BookOrder(4L, 5L, OrderSide.BUY, 15100L, 5L));
+
+        FillBuffer fills = orderBook.match(4L);
+
+        assertEquals(3, fills.size());
+        assertEquals(2L, fills.get(0).getRestingOrderId());
+        assertEquals(3L, fills.get(1).getRestingOrderId());
+        assertEquals(1L, fills.get(2).getRestingOrderId());
+        assertEquals(15000L, fills.get(0).getPriceTicks());
+        assertEquals(1L, fills.get(2).getQuantity());
+        assertEquals(4L, fills.get(2).getRestingRemainingSize());
+        assertNull(orderBook.get(4L));
+        assertEquals(1, orderBook.size());
+        assertEquals(15100L, orderBook.bestAsk());
+    }
+
+    @Test
+    void match_ShouldStopAtLevelsThatDoNotCross() {
+        orderBook.add(new BookOrder(1L, 2L, OrderSide.BUY, 14900L, 5L));
+        orderBook.add(new BookOrder(2L, 3L, OrderSide.SELL, 15000L, 5L));
+
+        FillBuffer fills = orderBook.match(2L);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(5L, orderBook.get(2L).getRemainingSize());
+    }
+
+    @Test
+    void match_ShouldSkipOrdersOfSameCustomer() {
+        orderBook.add(new BookOrder(1L, 2L, OrderSide.BUY, 15000L, 5L));
+        orderBook.add(new BookOrder(2L, 3L, OrderSide.BUY, 15000L, 5L));
+        orderBook.add(new BookOrder(3L, 2L, OrderSide.SELL, 15000L, 3L));
+
+        FillBuffer fills = orderBook.match(3L);
+
+        assertEquals(1, fills.size());
+        assertEquals(2L, fills.get(0).getRestingOrderId());
+        assertEquals(5L, orderBook.get(1L).getRemainingSize());
+        assertEquals(2L, orderBook.get(2L).getRemainingSize());
+    }
+
+    @Test
+    void remove_ShouldDropEmptyLevel() {
+        orderBook.add(new BookOrder(1L, 2L, OrderSide.BUY, 15000L, 5L));
+
+        assertNotNull(orderBook.remove(1L));
+
+        assertNull(orderBook.bestBid());
+        assertEquals(0, orderBook.size());
+    }
+
+    @Test
+    void match_ShouldReuseFillSlotsAndGrowPastInitialCapacity() {
+        for (long id = 1; id <= 40; id++) {
+            orderBook.add(new BookOrder(id, 2L, OrderSide.SELL, 15000L + id, 1L));
+        }
+        orderBook.add(new BookOrder(100L, 3L, OrderSide.BUY, 16000L, 40L));
+
+        long before = EpochNanos.now();
+        FillBuffer fills = orderBook.match(100L);
+
+        assertEquals(40, fills.size());
+        assertEquals(40L, fills.get(39).getRestingOrderId());
+        assertTrue(fills.get(0).getTimestampNanos() >= before);
+        Fill first = fills.get(0);
+
+        orderBook.add(new BookOrder(200L, 2L, OrderSide.SELL, 15000L, 1L));
+        orderBook.add(new BookOrder(201L, 3L, OrderSide.BUY, 15000L, 1L));
+
+        assertSame(fills, orderBook.match(201L));
+        assertEquals(1, fills.size());
+        assertSame(first, fills.get(0));
+        assertEquals(200L, first.getRestingOrderId());
+        assertEquals(0, orderBook.size());
+    }
+
+    @Test
+    void remove_ShouldUnlinkFromMiddleOfQueueAndKeepFifo() {
+        orderBook.add(new BookOrder(1L, 2L, OrderSide.SELL, 15000L, 1L));
+        orderBook.add(new BookOrder(2L, 2L, OrderSide.SELL, 15000L, 4L));
+        orderBook.add(new BookOrder(3L, 2L, OrderSide.SELL, 15000L, 1L));
+
+        BookOrder removed = orderBook.remove(2L);
+
+        assertEquals(4L, removed.getRemainingSize());
+        assertNull(orderBook.get(2L));
+        assertNull(orderBook.remove(2L));
+
+        orderBook.add(new BookOrder(4L, 3L, OrderSide.BUY, 15000L, 2L));
+        FillBuffer fills = orderBook.match(4L);
+
+        assertEquals(2, fills.size());
+        assertEquals(1L, fills.get(0).getRestingOrderId());
+        assertEquals(3L, fills.get(1).getRestingOrderId());
+        assertNull(orderBook.bestAsk());
+    }
+}
@@ -0,0 +1,58 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceScaleTest {
+
+    private final PriceScale priceScale = PriceScale.of(2);
+
+    @Test
+    void toTicks_ShouldConvertExactly() {
+        assertEquals(15025L, priceScale.toTicks(new BigDecimal("150.25")));
+        assertEquals(15000L, priceScale.toTicks(new BigDecimal("150")));
+        assertEquals(new BigDecimal("150.25"), priceScale.toPrice(15025L));
+    }
+
+    @Test
+    void toTicks_ShouldRejectPricesFinerThanScale() {
+        assertThrows(IllegalArgumentException.class, () -> priceScale.toTicks(new BigDecimal("150.255")));
+    }
+
+    @Test
+    void cash_ShouldBeExactInMinorUnits() {
+        assertEquals(45075L, priceScale.cash(15025L, 3L));
+        assertEquals(45000L, PriceScale.of(0).cash(150L, 3L));
+        assertThrows(IllegalStateException.class, () -> PriceScale.of(4).cash(1L, 1L));
+    }
+
+    @Test
+    void cash_ShouldNotLoseFractionOfSingleShareFill() {
+        assertEquals(99L, priceScale.cash(priceScale.toTicks(new BigDecimal("0.99")), 1L));
+
+        long paid = 0;
+        for (int fill = 0; fill < 100; fill++) {
+            paid += priceScale.cash(priceScale.toTicks(new BigDecimal("10.99")), 1L);
+        }
+        assertEquals(109_900L, paid);
+    }
+
+    @Test
+    void notional_ShouldFailOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> priceScale.notional(Long.MAX_VALUE, 2L));
+    }
+
+    @Test
+    void priceScales_ShouldRejectScalesFinerThanStoredPrices() {
+        PriceScales priceScales = new PriceScales(2, Map.of("BTC", 0));
+
+        assertEquals(0, priceScales.forAsset("BTC").getScale());
+        assertEquals(2, priceScales.forAsset("AAPL").getScale());
+        assertThrows(IllegalArgumentException.class, () -> new PriceScales(2, Map.of("BTC", 4)));
+        assertThrows(IllegalArgumentException.class, () -> new PriceScales(3, Map.of()));
+    }
+}
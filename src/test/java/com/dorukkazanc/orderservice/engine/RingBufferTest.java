@@ -0,0 +1,94 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void multiProducer_ShouldDeliverEveryCommandInOrderPerProducer() throws Exception {
+        int producers = 4;
+        int commandsPerProducer = 10_000;
+        RingBuffer ringBuffer = new RingBuffer(64, true, new BlockingWaitStrategy());
+        long[] lastSeen = new long[producers];
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers * commandsPerProducer);
+
+        CommandProcessor processor = new CommandProcessor(ringBuffer, (command, sequence, endOfBatch) -> {
+            int producer = (int) command.getCustomerId();
+            if (command.getOrderId() <= lastSeen[producer]) {
+                outOfOrder.incrementAndGet();
+            }
+            lastSeen[producer] = command.getOrderId();
+            received.incrementAndGet();
+            done.countDown();
+        });
+        Thread consumer = new Thread(processor);
+        consumer.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (long i = 1; i <= commandsPerProducer; i++) {
+                    long sequence = ringBuffer.next();
+                    ringBuffer.get(sequence).set(CommandType.NEW_ORDER, "AAPL", i, producer, null, null);
+                    ringBuffer.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        processor.halt();
+        consumer.join(1_000L);
+
+        assertEquals(producers * commandsPerProducer, received.get());
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    void processor_ShouldReportBatchEndAndFailReplyOnError() throws Exception {
+        RingBuffer ringBuffer = new RingBuffer(8, false, new YieldingWaitStrategy());
+        CompletableFuture<Object> reply = new CompletableFuture<>();
+
+        for (long i = 1; i <= 3; i++) {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).set(CommandType.CANCEL, "AAPL", i, 1L, null, i == 2 ? reply : null);
+            ringBuffer.publish(sequence);
+        }
+
+        List<Boolean> batchEnds = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        CommandProcessor processor = new CommandProcessor(ringBuffer, (command, sequence, endOfBatch) -> {
+            batchEnds.add(endOfBatch);
+            done.countDown();
+            if (command.getOrderId() == 2) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        Thread consumer = new Thread(processor);
+        consumer.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        processor.halt();
+        consumer.join(1_000L);
+
+        assertEquals(List.of(false, false, true), batchEnds);
+        assertTrue(reply.isCompletedExceptionally());
+        assertNull(ringBuffer.get(1).getReply());
+    }
+}
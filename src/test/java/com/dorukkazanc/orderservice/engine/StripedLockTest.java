@@ -0,0 +1,36 @@
+package com.dorukkazanc.orderservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockTest {
+
+    @Test
+    void forKey_ShouldReturnSameLockForSameKey() {
+        StripedLock stripedLock = new StripedLock(64);
+
+        assertSame(stripedLock.forKey(42L), stripedLock.forKey(42L));
+    }
+
+    @Test
+    void forKey_ShouldSpreadConsecutiveKeysOverStripes() {
+        StripedLock stripedLock = new StripedLock(64);
+        Set<ReentrantLock> used = new HashSet<>();
+
+        for (long customerId = 1; customerId <= 64; customerId++) {
+            used.add(stripedLock.forKey(customerId));
+        }
+
+        assertTrue(used.size() > 32, "only " + used.size() + " stripes used");
+    }
+
+    @Test
+    void constructor_ShouldRejectStripeCountThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(48));
+    }
+}
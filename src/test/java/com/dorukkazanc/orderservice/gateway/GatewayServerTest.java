@@ -0,0 +1,280 @@
+package com.dorukkazanc.orderservice.gateway;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayServerTest {
+    private static final long CUSTOMER_ID = 7L;
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final StubHandler handler = new StubHandler();
+    private GatewayServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new GatewayServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, MAX_IN_FLIGHT, handler);
+        server.start();
+        handler.server = server;
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void codec_ShouldRoundTripEveryMessageType() {
+        List<GatewayMessage> messages = List.of(
+                new Logon("alice", "secret"),
+                new NewOrder(1, "AAPL", OrderSide.BUY, 10, new BigDecimal("150.25")),
+                new CancelOrder(2, 42),
+                new AmendOrder(3, 42, 5, new BigDecimal("151.00")),
+                new LogonAccepted(CUSTOMER_ID),
+                new ExecutionReport(1, 42, ExecutionReport.ExecType.TRADE, OrderStatus.PENDING, 4,
+                        new BigDecimal("150.20"), 6, new BigDecimal("150.25")),
+                new Reject(3, 42, "Order not found with id: 42"));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (GatewayMessage message : messages) {
+            GatewayCodec.encode(buffer, message);
+        }
+        buffer.flip();
+
+        for (GatewayMessage message : messages) {
+            assertEquals(message, GatewayCodec.decode(buffer));
+        }
+        assertNull(GatewayCodec.decode(buffer));
+    }
+
+    @Test
+    void decode_ShouldRejectFrameWithWrongLength() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putShort((short) 5).put(GatewayMessageType.CANCEL_ORDER.getCode()).flip();
+
+        assertThrows(IllegalStateException.class, () -> GatewayCodec.decode(buffer));
+    }
+
+    @Test
+    void decode_ShouldRejectDecimalScaleFinerThanStoredPrices() {
+        for (BigDecimal price : List.of(new BigDecimal("150.255"), new BigDecimal(BigInteger.ONE, -1))) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            GatewayCodec.encode(buffer, new AmendOrder(1, 42, 5, price));
+            buffer.flip();
+
+            assertThrows(IllegalStateException.class, () -> GatewayCodec.decode(buffer));
+        }
+    }
+
+    @Test
+    void orderEntry_ShouldAnswerEveryRequestBeyondMaxInFlightInOrder() throws Exception {
+        try (GatewayClient client = connect()) {
+            client.logon("alice", "secret");
+            handler.entry = new CountDownLatch(1);
+
+            List<Long> clientOrderIds = new ArrayList<>();
+            for (int i = 0; i < MAX_IN_FLIGHT * 10; i++) {
+                clientOrderIds.add(client.newOrder("AAPL", OrderSide.BUY, 10, new BigDecimal("150.00")));
+            }
+            assertTrue(handler.entered.await(5, TimeUnit.SECONDS));
+            handler.entry.countDown();
+
+            for (long clientOrderId : clientOrderIds) {
+                assertEquals(clientOrderId, ((ExecutionReport) client.receive()).clientOrderId());
+            }
+        }
+    }
+
+    @Test
+    void requests_ShouldBeRejectedBeforeLogon() throws IOException {
+        try (GatewayClient client = connect()) {
+            long clientOrderId = client.newOrder("AAPL", OrderSide.BUY, 10, new BigDecimal("150.00"));
+
+            Reject reject = (Reject) client.receive();
+            assertEquals(clientOrderId, reject.clientOrderId());
+            assertEquals("Not logged on", reject.reason());
+            assertEquals(0, handler.orders.size());
+        }
+    }
+
+    @Test
+    void logon_ShouldRejectWrongPassword() throws IOException {
+        try (GatewayClient client = connect()) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> client.logon("alice", "wrong"));
+            assertEquals("Logon rejected: Invalid username or password", e.getMessage());
+
+            assertEquals(CUSTOMER_ID, client.logon("alice", "secret"));
+        }
+    }
+
+    @Test
+    void orderEntry_ShouldAnswerPipelinedRequestsInOrder() throws IOException {
+        try (GatewayClient client = connect()) {
+            client.logon("alice", "secret");
+
+            long newId = client.newOrder("AAPL", OrderSide.BUY, 10, new BigDecimal("150.00"));
+            long amendId = client.amend(1, 5, null);
+            long cancelId = client.cancel(1);
+            long unknownId = client.cancel(99);
+
+            ExecutionReport accepted = (ExecutionReport) client.receive();
+            assertEquals(newId, accepted.clientOrderId());
+            assertEquals(1, accepted.orderId());
+            assertEquals(ExecutionReport.ExecType.NEW, accepted.execType());
+            assertEquals(10, accepted.leavesQuantity());
+
+            ExecutionReport amended = (ExecutionReport) client.receive();
+            assertEquals(amendId, amended.clientOrderId());
+            assertEquals(ExecutionReport.ExecType.REPLACED, amended.execType());
+            assertEquals(5, amended.leavesQuantity());
+            assertEquals(0, new BigDecimal("150.00").compareTo(amended.price()));
+
+            ExecutionReport canceled = (ExecutionReport) client.receive();
+            assertEquals(cancelId, canceled.clientOrderId());
+            assertEquals(OrderStatus.CANCELED, canceled.status());
+
+            Reject reject = (Reject) client.receive();
+            assertEquals(unknownId, reject.clientOrderId());
+            assertEquals(99, reject.orderId());
+            assertEquals("Order not found with id: 99", reject.reason());
+        }
+    }
+
+    @Test
+    void publish_ShouldReportTradeAfterAcknowledgementWithClientOrderId() throws IOException {
+        try (GatewayClient client = connect()) {
+            client.logon("alice", "secret");
+            handler.fillOnEntry = true;
+
+            long clientOrderId = client.newOrder("AAPL", OrderSide.SELL, 10, new BigDecimal("150.00"));
+
+            ExecutionReport accepted = (ExecutionReport) client.receive();
+            assertEquals(ExecutionReport.ExecType.NEW, accepted.execType());
+            ExecutionReport trade = (ExecutionReport) client.receive();
+            assertEquals(ExecutionReport.ExecType.TRADE, trade.execType());
+            assertEquals(clientOrderId, trade.clientOrderId());
+            assertEquals(accepted.orderId(), trade.orderId());
+            assertEquals(OrderStatus.MATCHED, trade.status());
+            assertEquals(10, trade.lastQuantity());
+        }
+    }
+
+    @Test
+    void read_ShouldAssembleFramesSplitAcrossPackets() throws IOException {
+        ByteBuffer frames = ByteBuffer.allocate(256);
+        GatewayCodec.encode(frames, new Logon("alice", "secret"));
+        GatewayCodec.encode(frames, new CancelOrder(1, 99));
+        frames.flip();
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()))) {
+            ByteBuffer single = ByteBuffer.allocate(1);
+            while (frames.hasRemaining()) {
+                single.clear();
+                single.put(frames.get()).flip();
+                channel.write(single);
+            }
+
+            ByteBuffer replies = ByteBuffer.allocate(256);
+            GatewayMessage logonReply = null;
+            GatewayMessage cancelReply = null;
+            while (cancelReply == null) {
+                channel.read(replies);
+                replies.flip();
+                GatewayMessage message;
+                while ((message = GatewayCodec.decode(replies)) != null) {
+                    if (logonReply == null) {
+                        logonReply = message;
+                    } else {
+                        cancelReply = message;
+                    }
+                }
+                replies.compact();
+            }
+
+            assertEquals(new LogonAccepted(CUSTOMER_ID), logonReply);
+            assertEquals(99, ((Reject) cancelReply).orderId());
+        }
+    }
+
+    private GatewayClient connect() throws IOException {
+        return new GatewayClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    private static class StubHandler implements GatewayHandler {
+        private final Map<Long, NewOrder> orders = new HashMap<>();
+        private volatile GatewayServer server;
+        private volatile boolean fillOnEntry;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch entry;
+        private long nextOrderId = 1;
+
+        @Override
+        public long logon(String username, String password) {
+            if (!"alice".equals(username) || !"secret".equals(password)) {
+                throw new RuntimeException("Invalid username or password");
+            }
+            return CUSTOMER_ID;
+        }
+
+        @Override
+        public ExecutionReport newOrder(long customerId, NewOrder order) {
+            entered.countDown();
+            if (entry != null) {
+                try {
+                    entry.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            long orderId = nextOrderId++;
+            orders.put(orderId, order);
+            if (fillOnEntry) {
+                // The fill is published while the order is still being acknowledged
+                server.publish(customerId, new ExecutionReport(0, orderId, ExecutionReport.ExecType.TRADE,
+                        OrderStatus.MATCHED, order.size(), order.price(), 0, order.price()));
+            }
+            return new ExecutionReport(order.clientOrderId(), orderId, ExecutionReport.ExecType.NEW,
+                    OrderStatus.PENDING, 0, null, order.size(), order.price());
+        }
+
+        @Override
+        public ExecutionReport cancel(long customerId, CancelOrder cancel) {
+            NewOrder order = find(cancel.orderId());
+            return new ExecutionReport(cancel.clientOrderId(), cancel.orderId(), ExecutionReport.ExecType.CANCELED,
+                    OrderStatus.CANCELED, 0, null, 0, order.price());
+        }
+
+        @Override
+        public ExecutionReport amend(long customerId, AmendOrder amend) {
+            NewOrder order = find(amend.orderId());
+            BigDecimal price = amend.price().signum() == 0 ? order.price() : amend.price();
+            return new ExecutionReport(amend.clientOrderId(), amend.orderId(), ExecutionReport.ExecType.REPLACED,
+                    OrderStatus.PENDING, 0, null, amend.size(), price);
+        }
+
+        private NewOrder find(long orderId) {
+            NewOrder order = orders.get(orderId);
+            if (order == null) {
+                throw new RuntimeException("Order not found with id: " + orderId);
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.dorukkazanc.orderservice.journal;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_ShouldReturnRecordsInOrderAcrossSegments() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 256, FlushPolicy.PER_COMMAND, Duration.ZERO)) {
+            for (long id = 1; id <= 20; id++) {
+                writer.append(JournalRecordType.ORDER_ACCEPTED, order(id));
+                writer.append(JournalRecordType.ASSET_RESERVED, asset(id));
+                writer.endOfCommand();
+            }
+        }
+
+        assertTrue(JournalSegments.list(directory).size() > 1);
+
+        List<JournalRecord> records = new ArrayList<>();
+        long lastSequence = new JournalReader(directory).replay(0, records::add);
+
+        assertEquals(40, records.size());
+        assertEquals(40, lastSequence);
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+        }
+        assertEquals(order(7), records.get(12).entry());
+        assertEquals(JournalRecordType.ASSET_RESERVED, records.get(13).type());
+        assertEquals(asset(7), records.get(13).entry());
+    }
+
+    @Test
+    void replay_ShouldSkipRecordsUpToGivenSequence() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 256, FlushPolicy.PER_BATCH, Duration.ZERO)) {
+            for (long id = 1; id <= 10; id++) {
+                writer.append(JournalRecordType.ORDER_DELETED, new DeletedEntry(id));
+            }
+            writer.endOfBatch();
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(directory).replay(6, records::add);
+
+        assertEquals(4, records.size());
+        assertEquals(new DeletedEntry(7), records.get(0).entry());
+    }
+
+    @Test
+    void deleteSegmentsUpTo_ShouldKeepSegmentsWithLaterRecords() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 256, FlushPolicy.PER_COMMAND, Duration.ZERO)) {
+            for (long id = 1; id <= 20; id++) {
+                writer.append(JournalRecordType.ORDER_ACCEPTED, order(id));
+                writer.endOfCommand();
+            }
+            List<Path> segments = JournalSegments.list(directory);
+            long secondSegmentStart = JournalSegments.firstSequence(segments.get(1));
+
+            assertEquals(0, writer.deleteSegmentsUpTo(secondSegmentStart - 2));
+            assertEquals(1, writer.deleteSegmentsUpTo(secondSegmentStart - 1));
+            assertEquals(segments.size() - 2, writer.deleteSegmentsUpTo(Long.MAX_VALUE - 1));
+            assertEquals(List.of(segments.get(segments.size() - 1)), JournalSegments.list(directory));
+
+            List<JournalRecord> records = new ArrayList<>();
+            new JournalReader(directory).replay(19, records::add);
+            assertEquals(List.of(order(20)), records.stream().map(JournalRecord::entry).toList());
+        }
+    }
+
+    @Test
+    void reopen_ShouldDropTornTailAndContinueSequence() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 4096, FlushPolicy.PER_COMMAND, Duration.ZERO)) {
+            writer.append(JournalRecordType.ORDER_ACCEPTED, order(1));
+            writer.append(JournalRecordType.ORDER_ACCEPTED, order(2));
+        }
+
+        // Flip a payload byte of the second record as if the crash hit while it was being written
+        Path segment = JournalSegments.list(directory).get(0);
+        int secondFrame = JournalSegments.FRAME_HEADER + JournalSegments.RECORD_HEADER + order(1).encodedSize();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int offset = secondFrame + JournalSegments.FRAME_HEADER + 12;
+            buffer.put(offset, (byte) (buffer.get(offset) ^ 0x7f));
+            buffer.force();
+        }
+
+        try (JournalWriter writer = new JournalWriter(directory, 4096, FlushPolicy.PER_COMMAND, Duration.ZERO)) {
+            assertEquals(2, writer.getNextSequence());
+            writer.append(JournalRecordType.ORDER_CANCELED, order(3));
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(directory).replay(0, records::add);
+
+        assertEquals(2, records.size());
+        assertEquals(order(1), records.get(0).entry());
+        assertEquals(JournalRecordType.ORDER_CANCELED, records.get(1).type());
+        assertEquals(order(3), records.get(1).entry());
+    }
+
+    private OrderEntry order(long id) {
+        return new OrderEntry(id, 2L, "AAPL", OrderSide.BUY, 10 + id, new BigDecimal("150.25"),
+                OrderStatus.PENDING, LocalDateTime.of(2025, 8, 22, 10, 0, 0, 123_456_789), null);
+    }
+
+    private AssetEntry asset(long id) {
+        return new AssetEntry(id, 2L, "TRY", 50_000 - id, 49_000 - id,
+                LocalDateTime.of(2025, 8, 22, 9, 0), LocalDateTime.of(2025, 8, 22, 10, 0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.dorukkazanc.orderservice.journal;
+
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void apply_ShouldKeepOnlyOpenOrdersAndRememberDeletedAssets() {
+        SnapshotState state = new SnapshotState();
+
+        state.apply(new JournalRecord(1, JournalRecordType.ORDER_ACCEPTED, order(1, OrderStatus.PENDING, 10)));
+        state.apply(new JournalRecord(2, JournalRecordType.ORDER_ACCEPTED, order(2, OrderStatus.PENDING, 5)));
+        state.apply(new JournalRecord(3, JournalRecordType.ORDER_EXECUTED, order(2, OrderStatus.MATCHED, 0)));
+        state.apply(new JournalRecord(4, JournalRecordType.ASSET_RESERVED, asset(4, 900)));
+        state.apply(new JournalRecord(5, JournalRecordType.ASSET_DELETED, new DeletedEntry(7)));
+
+        assertEquals(5, state.getSequence());
+        assertEquals(2, state.getMaxOrderId());
+        assertEquals(List.of(order(1, OrderStatus.PENDING, 10)), List.copyOf(state.getOpenOrders()));
+        assertEquals(List.of(asset(4, 900)), List.copyOf(state.getAssets()));
+        assertEquals(List.of(7L), List.copyOf(state.getDeletedAssetIds()));
+    }
+
+    @Test
+    void loadLatest_ShouldReadBackWrittenSnapshotAndSkipDamagedOnes() throws IOException {
+        SnapshotStore store = new SnapshotStore(directory, 2);
+        SnapshotState state = new SnapshotState();
+        state.apply(new JournalRecord(1, JournalRecordType.ORDER_ACCEPTED, order(1, OrderStatus.PENDING, 10)));
+        state.apply(new JournalRecord(2, JournalRecordType.ASSET_TRANSFERRED, asset(3, 400)));
+        store.write(state);
+
+        state.apply(new JournalRecord(3, JournalRecordType.ORDER_CANCELED, order(1, OrderStatus.CANCELED, 10)));
+        Path newest = store.write(state);
+        byte[] bytes = Files.readAllBytes(newest);
+        bytes[20] ^= 0x01;
+        Files.write(newest, bytes);
+
+        SnapshotState loaded = store.loadLatest().orElseThrow();
+
+        assertEquals(2, loaded.getSequence());
+        assertEquals(1, loaded.getMaxOrderId());
+        assertEquals(3, loaded.getMaxAssetId());
+        assertEquals(List.of(order(1, OrderStatus.PENDING, 10)), List.copyOf(loaded.getOpenOrders()));
+        assertEquals(List.of(asset(3, 400)), List.copyOf(loaded.getAssets()));
+    }
+
+    @Test
+    void write_ShouldKeepOnlyRetainedSnapshots() throws IOException {
+        SnapshotStore store = new SnapshotStore(directory, 2);
+        SnapshotState state = new SnapshotState();
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            state.apply(new JournalRecord(sequence, JournalRecordType.ASSET_UPDATED, asset(sequence, 100)));
+            store.write(state);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(4, store.loadLatest().orElseThrow().getSequence());
+    }
+
+    @Test
+    void journalTail_ShouldBringSnapshotUpToBarrier() throws IOException {
+        Path journal = directory.resolve("journal");
+        try (JournalWriter writer = new JournalWriter(journal, 4096, FlushPolicy.PER_COMMAND, Duration.ZERO)) {
+            for (long id = 1; id <= 6; id++) {
+                writer.append(JournalRecordType.ORDER_ACCEPTED, order(id, OrderStatus.PENDING, id));
+            }
+        }
+
+        SnapshotState state = new SnapshotState();
+        JournalReader reader = new JournalReader(journal);
+        assertEquals(4, reader.replay(0, 4, state::apply));
+        assertEquals(4, state.getSequence());
+        assertEquals(6, reader.replay(state.getSequence(), state::apply));
+        assertEquals(6, state.getOpenOrders().size());
+    }
+
+    private OrderEntry order(long id, OrderStatus status, long size) {
+        return new OrderEntry(id, 2L, "AAPL", OrderSide.SELL, size, new BigDecimal("99.50"), status,
+                LocalDateTime.of(2025, 8, 22, 10, 0), null);
+    }
+
+    private AssetEntry asset(long id, long usableSize) {
+        return new AssetEntry(id, 2L, "TRY", 1_000, usableSize, LocalDateTime.of(2025, 8, 22, 9, 0), null);
+    }
+}
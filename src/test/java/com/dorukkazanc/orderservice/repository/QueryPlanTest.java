@@ -0,0 +1,156 @@
+package com.dorukkazanc.orderservice.repository;
+
+import com.dorukkazanc.orderservice.dto.DynamicRequestDTO;
+import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.entity.OrderView;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.utils.DynamicQueryBuilder;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot queries as Hibernate generates them against the migrated schema and checks with {@code EXPLAIN}
+ * that H2 answers each one from the index meant for it rather than a table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.dorukkazanc.orderservice.repository.QueryPlanTest$SqlCapture")
+class QueryPlanTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByCustomerIdAndAssetName_ShouldUseCustomerAssetIndex() {
+        assetRepository.findByCustomerIdAndAssetName(2L, "TRY");
+
+        assertIndexUsed("UK_ASSETS_CUSTOMER_ASSET", 2L, "TRY");
+    }
+
+    @Test
+    void findOrderByIdAndCustomerId_ShouldUsePrimaryKey() {
+        orderRepository.findOrderByIdAndCustomerId(1L, 2L);
+
+        assertIndexUsed("PRIMARY_KEY", 1L, 2L);
+    }
+
+    @Test
+    void findOrdersByStatus_ShouldUseStatusIndex() {
+        orderRepository.findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus.PENDING);
+
+        assertIndexUsed("IDX_ORDERS_STATUS_CREATED", "PENDING");
+    }
+
+    @Test
+    void findOrdersByAssetNameAndStatus_ShouldUseAssetStatusIndex() {
+        orderRepository.findOrdersByAssetNameAndStatusOrderByCreatedDateAscIdAsc("AAPL", OrderStatus.PENDING);
+
+        assertIndexUsed("IDX_ORDERS_ASSET_STATUS_CREATED", "AAPL", "PENDING");
+    }
+
+    @Test
+    void findOrdersByOrderSideAndStatus_ShouldUseSideStatusIndex() {
+        orderRepository.findOrdersByOrderSideAndStatus(OrderSide.BUY, OrderStatus.PENDING);
+
+        assertIndexUsed("IDX_ORDERS_SIDE_STATUS_PRICE", "BUY", "PENDING");
+    }
+
+    // H2 gives every foreign key an index of its own and prefers it for customer_id = ? over the
+    // (customer_id, ...) indexes, so the paged customer searches are checked against that one
+    @Test
+    void orderSearchByCustomer_ShouldUseCustomerIndex() {
+        Specification<Order> spec = DynamicQueryBuilder.buildSpecification(customerFilter());
+
+        orderRepository.findAll(spec, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdDate")));
+
+        assertIndexUsed("FK_ORDERS_CUSTOMER_INDEX", 2L, 0, 20);
+    }
+
+    @Test
+    void orderSearchAcrossTiers_ShouldUseCustomerIndexOfBothTables() {
+        Specification<OrderView> spec = DynamicQueryBuilder.buildSpecification(customerFilter());
+
+        orderViewRepository.findAll(spec, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdDate")));
+
+        assertIndexUsed("FK_ORDERS_CUSTOMER_INDEX", 2L, 0, 20);
+        assertIndexUsed("IDX_ORDERS_HISTORY_CUSTOMER_CREATED", 2L, 0, 20);
+    }
+
+    @Test
+    void assetSearchByCustomer_ShouldUseCustomerIndex() {
+        Specification<Asset> spec = DynamicQueryBuilder.buildSpecification(customerFilter());
+
+        assetRepository.findAll(spec, PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "assetName")));
+
+        assertIndexUsed("FK_ASSETS_CUSTOMER_INDEX", 2L, 0, 20);
+    }
+
+    private DynamicRequestDTO customerFilter() {
+        return DynamicRequestDTO.builder()
+                .filters(List.of(DynamicRequestDTO.FilterCriteria.builder()
+                        .field("customerId")
+                        .operator("eq")
+                        .value(2)
+                        .build()))
+                .build();
+    }
+
+    /**
+     * Explains the first statement the query issued, bound to the same parameters. Paged queries take the
+     * offset and the page size as their last two; trailing parameters are dropped when the dialect renders
+     * them inline.
+     */
+    private void assertIndexUsed(String indexName, Object... parameters) {
+        assertFalse(SqlCapture.STATEMENTS.isEmpty(), "No statement was captured");
+        String sql = SqlCapture.STATEMENTS.get(0);
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+        assertTrue(placeholders <= parameters.length, () -> "Missing parameters for " + sql);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+                Arrays.copyOf(parameters, placeholders));
+
+        assertFalse(plan.contains("tableScan"), () -> "Table scan for " + sql + "\n" + plan);
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " for " + sql + "\n" + plan);
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.dorukkazanc.orderservice.service;
 
-import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.engine.Balance;
 import com.dorukkazanc.orderservice.entity.Order;
 import com.dorukkazanc.orderservice.enums.OrderSide;
 import com.dorukkazanc.orderservice.exception.InsufficientAssetException;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
 import com.dorukkazanc.orderservice.repository.AssetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +14,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,25 +26,19 @@ class AssetServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private LedgerService ledgerService;
+
     @InjectMocks
     private AssetService assetService;
 
-    private Asset testAsset;
     private Order testOrder;
 
     @BeforeEach
     void setUp() {
-        testAsset = Asset.builder()
-                .id(1L)
-                .customerId("123")
-                .assetName("BTC")
-                .size(100L)
-                .usableSize(100L)
-                .build();
-
         testOrder = Order.builder()
                 .id(1L)
-                .customerId("123")
+                .customerId(123L)
                 .assetName("BTC")
                 .orderSide(OrderSide.SELL)
                 .size(10L)
@@ -52,45 +47,62 @@ class AssetServiceTest {
     }
 
     @Test
-    void getAssetByCustomerIdAndName_ShouldReturnAsset() {
-        when(assetRepository.findByCustomerIdAndAssetName("123", "BTC"))
-                .thenReturn(Optional.of(testAsset));
+    void updateAssetForOrder_ShouldReserveThroughLedger() {
+        when(ledgerService.reserve(testOrder)).thenReturn(true);
 
-        Asset result = assetService.getAssetByCustomerIdAndName(123L, "BTC");
+        assetService.updateAssetForOrder(testOrder);
 
-        assertNotNull(result);
-        assertEquals("BTC", result.getAssetName());
-        assertEquals("123", result.getCustomerId());
-        verify(assetRepository).findByCustomerIdAndAssetName("123", "BTC");
+        verify(ledgerService).reserve(testOrder);
+        verify(assetRepository, never()).save(any());
     }
 
     @Test
-    void getAssetByCustomerIdAndName_ShouldReturnNull_WhenAssetNotFound() {
-        when(assetRepository.findByCustomerIdAndAssetName("123", "BTC"))
-                .thenReturn(Optional.empty());
+    void updateAssetForOrder_ShouldThrowException_WhenReservationFails() {
+        when(ledgerService.reserve(testOrder)).thenReturn(false);
 
-        Asset result = assetService.getAssetByCustomerIdAndName(123L, "BTC");
-
-        assertNull(result);
-        verify(assetRepository).findByCustomerIdAndAssetName("123", "BTC");
+        assertThrows(InsufficientAssetException.class, () -> {
+            assetService.updateAssetForOrder(testOrder);
+        });
     }
 
     @Test
-    void updateAssetForOrder_ShouldUpdateAssetForSellOrder() {
-        when(assetRepository.save(any(Asset.class))).thenReturn(testAsset);
+    void releaseReservation_ShouldReleaseOrderReservation() {
+        assetService.releaseReservation(testOrder);
 
-        assetService.updateAssetForOrder(testOrder, testAsset);
+        verify(ledgerService).release(1L);
+    }
 
-        assertEquals(90L, testAsset.getUsableSize());
-        verify(assetRepository).save(testAsset);
+    @Test
+    void transferAssetsBetweenCustomers_ShouldSettleInLedger() {
+        Balance buyerCash = new Balance(1L, 1L, "TRY", 1000L, 400L, null);
+        Balance buyerShares = new Balance(2L, 1L, "BTC", 0L, 0L, null);
+        Balance sellerShares = new Balance(3L, 2L, "BTC", 10L, 6L, null);
+        Balance sellerCash = new Balance(4L, 2L, "TRY", 0L, 0L, null);
+        when(ledgerService.get(1L, "TRY")).thenReturn(buyerCash);
+        when(ledgerService.get(2L, "BTC")).thenReturn(sellerShares);
+        when(ledgerService.getOrCreate(1L, "BTC")).thenReturn(buyerShares);
+        when(ledgerService.getOrCreate(2L, "TRY")).thenReturn(sellerCash);
+
+        assetService.transferAssetsBetweenCustomers(10L, 20L, 1L, 2L, "BTC", 4L, 380L, 400L);
+
+        verify(ledgerService).consume(10L, 400L);
+        verify(ledgerService).consume(20L, 4L);
+        verify(ledgerService).apply(buyerCash, -380L, 20L, JournalRecordType.ASSET_TRANSFERRED);
+        verify(ledgerService).apply(buyerShares, 4L, 4L, JournalRecordType.ASSET_TRANSFERRED);
+        verify(ledgerService).apply(sellerShares, -4L, 0L, JournalRecordType.ASSET_TRANSFERRED);
+        verify(ledgerService).apply(sellerCash, 380L, 380L, JournalRecordType.ASSET_TRANSFERRED);
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(any(), any());
     }
 
     @Test
-    void updateAssetForOrder_ShouldThrowException_WhenAssetIsNull() {
+    void transferAssetsBetweenCustomers_ShouldThrowException_WhenCashExceedsReleasedReservation() {
+        when(ledgerService.get(1L, "TRY")).thenReturn(new Balance(1L, 1L, "TRY", 1000L, 400L, null));
+        when(ledgerService.get(2L, "BTC")).thenReturn(new Balance(3L, 2L, "BTC", 10L, 6L, null));
+
         assertThrows(InsufficientAssetException.class, () -> {
-            assetService.updateAssetForOrder(testOrder, null);
+            assetService.transferAssetsBetweenCustomers(10L, 20L, 1L, 2L, "BTC", 4L, 401L, 400L);
         });
 
-        verify(assetRepository, never()).save(any());
+        verify(ledgerService, never()).apply(any(), anyLong(), anyLong(), any());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.event.OrderExecutedEvent;
+import com.dorukkazanc.orderservice.event.OrdersCanceledEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private AsyncOrderService asyncOrderService;
+    private OrderRequestDTO orderRequestDTO;
+
+    @BeforeEach
+    void setUp() {
+        EngineProperties engineProperties = new EngineProperties();
+        engineProperties.getAsyncEntry().setThreads(1);
+        engineProperties.getAsyncEntry().setQueueCapacity(1);
+        asyncOrderService = new AsyncOrderService(orderService, new IdempotencyCache(engineProperties), engineProperties);
+        orderRequestDTO = OrderRequestDTO.builder()
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(10L)
+                .price(new BigDecimal("150.25"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncOrderService.close();
+    }
+
+    @Test
+    void createOrder_ShouldAcknowledgeOffTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        when(orderService.createOrder(2L, orderRequestDTO)).then(invocation -> {
+            assertNotSame(caller, Thread.currentThread());
+            return order(1L, OrderStatus.PENDING);
+        });
+
+        OrderResponseDTO accepted = asyncOrderService.createOrder(2L, null, orderRequestDTO).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1L, accepted.getId());
+        assertEquals(OrderStatus.PENDING, accepted.getStatus());
+    }
+
+    @Test
+    void createOrder_ShouldRefuseOrdersBeyondQueueCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(anyLong(), any())).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return order(1L, OrderStatus.PENDING);
+        });
+
+        CompletableFuture<OrderResponseDTO> running = asyncOrderService.createOrder(2L, null, orderRequestDTO);
+        CompletableFuture<OrderResponseDTO> queued = asyncOrderService.createOrder(2L, null, orderRequestDTO);
+
+        assertThrows(RejectedExecutionException.class, () -> asyncOrderService.createOrder(2L, null, orderRequestDTO));
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void close_ShouldLetEnteredOrdersFinishOnDaemonThreads() throws Exception {
+        when(orderService.createOrder(2L, orderRequestDTO)).then(invocation -> {
+            assertTrue(Thread.currentThread().isDaemon());
+            Thread.sleep(100);
+            return order(1L, OrderStatus.PENDING);
+        });
+
+        CompletableFuture<OrderResponseDTO> accepted = asyncOrderService.createOrder(2L, null, orderRequestDTO);
+        asyncOrderService.close();
+
+        assertTrue(accepted.isDone());
+        assertEquals(1L, accepted.get().getId());
+    }
+
+    @Test
+    void awaitFinalStatus_ShouldCompleteOnceOrderIsFilled() throws Exception {
+        when(orderService.getOrderById(1L))
+                .thenReturn(Optional.of(order(1L, OrderStatus.PENDING)))
+                .thenReturn(Optional.of(order(1L, OrderStatus.MATCHED)));
+
+        CompletableFuture<OrderResponseDTO> finalStatus = asyncOrderService.awaitFinalStatus(order(1L, OrderStatus.PENDING));
+        assertFalse(finalStatus.isDone());
+
+        asyncOrderService.onOrderExecuted(new OrderExecutedEvent("AAPL", List.of(
+                new OrderExecutedEvent.Execution(1L, 2L, OrderStatus.MATCHED, 10L, new BigDecimal("150.25"), 0L,
+                        new BigDecimal("150.25")))));
+
+        assertEquals(OrderStatus.MATCHED, finalStatus.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void awaitFinalStatus_ShouldIgnorePartialFillsAndCompleteOnCancel() throws Exception {
+        when(orderService.getOrderById(1L))
+                .thenReturn(Optional.of(order(1L, OrderStatus.PENDING)))
+                .thenReturn(Optional.of(order(1L, OrderStatus.CANCELED)));
+
+        CompletableFuture<OrderResponseDTO> finalStatus = asyncOrderService.awaitFinalStatus(order(1L, OrderStatus.PENDING));
+        asyncOrderService.onOrderExecuted(new OrderExecutedEvent("AAPL", List.of(
+                new OrderExecutedEvent.Execution(1L, 2L, OrderStatus.PENDING, 4L, new BigDecimal("150.25"), 6L,
+                        new BigDecimal("150.25")))));
+        assertFalse(finalStatus.isDone());
+
+        asyncOrderService.onOrdersCanceled(new OrdersCanceledEvent(List.of(1L)));
+
+        assertEquals(OrderStatus.CANCELED, finalStatus.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void awaitFinalStatus_ShouldStopWaitingWhenCanceled() {
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(order(1L, OrderStatus.PENDING)));
+
+        CompletableFuture<OrderResponseDTO> finalStatus = asyncOrderService.awaitFinalStatus(order(1L, OrderStatus.PENDING));
+        finalStatus.cancel(false);
+        asyncOrderService.onOrdersCanceled(new OrdersCanceledEvent(List.of(1L)));
+
+        verify(orderService, times(1)).getOrderById(1L);
+    }
+
+    private OrderResponseDTO order(Long id, OrderStatus status) {
+        return OrderResponseDTO.builder()
+                .id(id)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(10L)
+                .price(new BigDecimal("150.25"))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.CacheStatsDTO;
+import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private IdempotencyCache idempotencyCache;
+    private OrderRequestDTO orderRequestDTO;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyCache = new IdempotencyCache(new EngineProperties());
+        orderRequestDTO = OrderRequestDTO.builder()
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(10L)
+                .price(new BigDecimal("150.25"))
+                .build();
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void execute_ShouldReturnStoredResponseForRetry() {
+        Integer first = idempotencyCache.execute(2L, "quote-1", orderRequestDTO, executions::incrementAndGet);
+        Integer retry = idempotencyCache.execute(2L, "quote-1", copy(orderRequestDTO), executions::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, retry);
+        assertEquals(1, executions.get());
+        CacheStatsDTO stats = idempotencyCache.stats();
+        assertEquals(1L, stats.getSize());
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+    }
+
+    @Test
+    void execute_ShouldScopeKeysToCustomer() {
+        idempotencyCache.execute(2L, "quote-1", orderRequestDTO, executions::incrementAndGet);
+        idempotencyCache.execute(3L, "quote-1", orderRequestDTO, executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        idempotencyCache.execute(2L, "quote-1", orderRequestDTO, executions::incrementAndGet);
+        OrderRequestDTO otherRequest = copy(orderRequestDTO);
+        otherRequest.setSize(20L);
+
+        assertThrows(RuntimeException.class,
+                () -> idempotencyCache.execute(2L, "quote-1", otherRequest, executions::incrementAndGet));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ShouldForgetFailedAttempt() {
+        assertThrows(IllegalStateException.class, () -> idempotencyCache.execute(2L, "quote-1", orderRequestDTO, () -> {
+            throw new IllegalStateException("Insufficient asset for the order");
+        }));
+
+        Integer retry = idempotencyCache.execute(2L, "quote-1", orderRequestDTO, executions::incrementAndGet);
+
+        assertEquals(1, retry);
+    }
+
+    private OrderRequestDTO copy(OrderRequestDTO request) {
+        return OrderRequestDTO.builder()
+                .assetName(request.getAssetName())
+                .orderSide(request.getOrderSide())
+                .size(request.getSize())
+                .price(request.getPrice())
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.engine.Balance;
+import com.dorukkazanc.orderservice.engine.PriceScales;
+import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
+import com.dorukkazanc.orderservice.repository.AssetRepository;
+import com.dorukkazanc.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private PriceScales priceScales = new PriceScales(2, Map.of());
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CommandJournal commandJournal;
+
+    @Spy
+    private EngineProperties engineProperties = new EngineProperties();
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private Order buyOrder;
+
+    @BeforeEach
+    void setUp() {
+        Asset cashAsset = Asset.builder()
+                .id(2L)
+                .customerId(123L)
+                .assetName("TRY")
+                .size(100_000L)
+                .usableSize(100_000L)
+                .build();
+        buyOrder = Order.builder()
+                .id(5L)
+                .customerId(123L)
+                .assetName("BTC")
+                .orderSide(OrderSide.BUY)
+                .size(3L)
+                .price(new BigDecimal("150.25"))
+                .status(OrderStatus.PENDING)
+                .build();
+        when(assetRepository.findAll()).thenReturn(List.of(cashAsset));
+        when(orderRepository.findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus.PENDING)).thenReturn(List.of());
+        ledgerService.load();
+    }
+
+    @Test
+    void reserve_ShouldReserveCashAtLimitForBuyOrder() {
+        engineProperties.getSettlement().setMaxRows(0);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        assertTrue(ledgerService.reserve(buyOrder));
+
+        Balance cash = ledgerService.get(123L, "TRY");
+        assertEquals(54_925L, cash.getUsableSize());
+        assertEquals(45_075L, ledgerService.release(5L));
+        assertEquals(100_000L, cash.getUsableSize());
+        verify(commandJournal).balanceChanged(eq(JournalRecordType.ASSET_RESERVED), eq(cash), any());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void reserve_ShouldFail_WhenUsableCashIsShort() {
+        buyOrder.setSize(7L);
+
+        assertFalse(ledgerService.reserve(buyOrder));
+
+        assertEquals(100_000L, ledgerService.get(123L, "TRY").getUsableSize());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void adjust_ShouldReserveOrGiveBackTheDifference() {
+        assertTrue(ledgerService.reserve(buyOrder));
+        Balance cash = ledgerService.get(123L, "TRY");
+
+        buyOrder.setSize(6L);
+        assertTrue(ledgerService.adjust(buyOrder, 90_150L));
+        assertEquals(9_850L, cash.getUsableSize());
+
+        assertFalse(ledgerService.adjust(buyOrder, 100_100L));
+        assertEquals(9_850L, cash.getUsableSize());
+
+        assertTrue(ledgerService.adjust(buyOrder, 30_050L));
+        assertEquals(69_950L, cash.getUsableSize());
+        assertEquals(30_050L, ledgerService.release(5L));
+        assertEquals(100_000L, cash.getUsableSize());
+    }
+
+    @Test
+    void flushSettlements_ShouldWriteOneNetDeltaPerBalance() {
+        Order secondBuyOrder = Order.builder()
+                .id(6L)
+                .customerId(123L)
+                .assetName("BTC")
+                .orderSide(OrderSide.BUY)
+                .size(1L)
+                .price(new BigDecimal("100.00"))
+                .status(OrderStatus.PENDING)
+                .build();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        assertTrue(ledgerService.reserve(buyOrder));
+        assertTrue(ledgerService.reserve(secondBuyOrder));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        ledgerService.flushSettlements();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(0L, batch.getValue().get(0)[0]);
+        assertEquals(-55_075L, batch.getValue().get(0)[1]);
+        assertEquals(2L, batch.getValue().get(0)[3]);
+    }
+
+    @Test
+    void load_ShouldRestoreReservationsOfPendingOrders() {
+        engineProperties.getSettlement().setMaxRows(0);
+        when(orderRepository.findOrdersByStatusOrderByCreatedDateAscIdAsc(OrderStatus.PENDING)).thenReturn(List.of(buyOrder));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        ledgerService.load();
+
+        assertEquals(100_000L, ledgerService.get(123L, "TRY").getUsableSize());
+        assertEquals(45_075L, ledgerService.release(5L));
+        verify(commandJournal).balanceChanged(any(), any(), any());
+    }
+}
@@ -1,27 +1,40 @@
 package com.dorukkazanc.orderservice.service;
 
+import com.dorukkazanc.orderservice.dto.MassCancelRequestDTO;
+import com.dorukkazanc.orderservice.dto.OrderBatchResultDTO;
 import com.dorukkazanc.orderservice.dto.OrderRequestDTO;
 import com.dorukkazanc.orderservice.dto.OrderResponseDTO;
 import com.dorukkazanc.orderservice.dto.OrderUpdateDTO;
-import com.dorukkazanc.orderservice.entity.Asset;
+import com.dorukkazanc.orderservice.engine.Balance;
+import com.dorukkazanc.orderservice.engine.PriceScales;
 import com.dorukkazanc.orderservice.entity.Order;
 import com.dorukkazanc.orderservice.enums.OrderSide;
 import com.dorukkazanc.orderservice.enums.OrderStatus;
+import com.dorukkazanc.orderservice.event.OrderAcceptedEvent;
+import com.dorukkazanc.orderservice.event.OrdersCanceledEvent;
 import com.dorukkazanc.orderservice.exception.InsufficientAssetException;
+import com.dorukkazanc.orderservice.journal.JournalRecordType;
 import com.dorukkazanc.orderservice.repository.OrderRepository;
+import com.dorukkazanc.orderservice.repository.OrderViewRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -34,18 +47,39 @@ class OrderServiceTest {
     @Mock
     private AssetService assetService;
 
+    @Mock
+    private OrderBookService orderBookService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PriceScales priceScales = new PriceScales(2, Map.of());
+
+    @Mock
+    private CommandJournal commandJournal;
+
+    @Mock
+    private CustomerLocks customerLocks;
+
+    @Mock
+    private OrderWriter orderWriter;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
     @InjectMocks
     private OrderService orderService;
 
     private Order testOrder;
-    private Asset testAsset;
+    private Balance testBalance;
     private OrderRequestDTO orderRequestDTO;
 
     @BeforeEach
     void setUp() {
         testOrder = Order.builder()
                 .id(1L)
-                .customerId("123")
+                .customerId(123L)
                 .assetName("BTC")
                 .orderSide(OrderSide.SELL)
                 .size(10L)
@@ -53,13 +87,7 @@ class OrderServiceTest {
                 .status(OrderStatus.PENDING)
                 .build();
 
-        testAsset = Asset.builder()
-                .id(1L)
-                .customerId("123")
-                .assetName("BTC")
-                .size(100L)
-                .usableSize(100L)
-                .build();
+        testBalance = new Balance(1L, 123L, "BTC", 100L, 100L, null);
 
         orderRequestDTO = OrderRequestDTO.builder()
                 .assetName("BTC")
@@ -71,9 +99,8 @@ class OrderServiceTest {
 
     @Test
     void createOrder_ShouldCreateOrderSuccessfully() {
-        when(assetService.getAssetByCustomerIdAndName(123L, "BTC")).thenReturn(testAsset);
+        when(assetService.getBalance(123L, "BTC")).thenReturn(testBalance);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        doNothing().when(assetService).updateAssetForOrder(any(Order.class), any(Asset.class));
 
         OrderResponseDTO result = orderService.createOrder(123L, orderRequestDTO);
 
@@ -81,27 +108,91 @@ class OrderServiceTest {
         assertEquals("BTC", result.getAssetName());
         assertEquals(OrderSide.SELL, result.getOrderSide());
         verify(orderRepository).save(any(Order.class));
-        verify(assetService).updateAssetForOrder(any(Order.class), eq(testAsset));
+        verify(assetService).updateAssetForOrder(testOrder);
+        verify(orderBookService).sync(testOrder);
+        verify(eventPublisher).publishEvent(new OrderAcceptedEvent(1L, "BTC"));
+        verify(commandJournal).orderChanged(JournalRecordType.ORDER_ACCEPTED, testOrder);
+        verify(customerLocks).lockUntilCompletion(123L);
     }
 
     @Test
     void createOrder_ShouldThrowException_WhenAssetInsufficient() {
-        Asset insufficientAsset = Asset.builder()
-                .id(1L)
-                .customerId("123")
-                .assetName("BTC")
-                .size(5L)
-                .usableSize(5L)
-                .build();
+        Balance insufficientBalance = new Balance(1L, 123L, "BTC", 5L, 5L, null);
 
-        when(assetService.getAssetByCustomerIdAndName(123L, "BTC")).thenReturn(insufficientAsset);
+        when(assetService.getBalance(123L, "BTC")).thenReturn(insufficientBalance);
 
         assertThrows(InsufficientAssetException.class, () -> {
             orderService.createOrder(123L, orderRequestDTO);
         });
 
         verify(orderRepository, never()).save(any());
-        verify(assetService, never()).updateAssetForOrder(any(), any());
+        verify(assetService, never()).updateAssetForOrder(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createOrders_ShouldRejectOrdersBeyondCombinedUsableSize() {
+        when(assetService.getBalance(123L, "BTC")).thenReturn(testBalance);
+        when(orderRepository.saveAll(anyList())).then(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setId(i + 1L);
+            }
+            return orders;
+        });
+
+        List<OrderBatchResultDTO> results = orderService.createOrders(123L, List.of(
+                sellRequest(60L), sellRequest(30L), sellRequest(20L), sellRequest(10L)));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isAccepted());
+        assertTrue(results.get(1).isAccepted());
+        assertFalse(results.get(2).isAccepted());
+        assertEquals("Insufficient asset for the order", results.get(2).getError());
+        assertTrue(results.get(3).isAccepted());
+        assertEquals(3L, results.get(3).getOrder().getId());
+        verify(assetService, times(1)).getBalance(123L, "BTC");
+        verify(assetService, times(3)).updateAssetForOrder(any(Order.class));
+        verify(eventPublisher, times(3)).publishEvent(any(OrderAcceptedEvent.class));
+        verify(customerLocks).lockUntilCompletion(123L);
+    }
+
+    @Test
+    void cancelOrders_ShouldCancelMatchingOrdersWithOneUpdate() {
+        Order otherOrder = Order.builder()
+                .id(2L)
+                .customerId(123L)
+                .assetName("BTC")
+                .orderSide(OrderSide.SELL)
+                .size(5L)
+                .price(BigDecimal.valueOf(51000))
+                .status(OrderStatus.PENDING)
+                .build();
+        when(orderRepository.findAll(any(Specification.class))).thenReturn(List.of(testOrder, otherOrder));
+        when(orderRepository.cancelPendingOrders(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+
+        long canceled = orderService.cancelOrders("BTC", MassCancelRequestDTO.builder().customerId(123L).build());
+
+        assertEquals(2L, canceled);
+        assertEquals(OrderStatus.CANCELED, testOrder.getStatus());
+        assertEquals(OrderStatus.CANCELED, otherOrder.getStatus());
+        verify(orderWriter).flush();
+        verify(orderRepository, never()).save(any());
+        verify(orderBookService).cancel(testOrder);
+        verify(assetService).releaseReservation(otherOrder);
+        verify(commandJournal).orderChanged(JournalRecordType.ORDER_CANCELED, otherOrder);
+        verify(eventPublisher).publishEvent(new OrdersCanceledEvent(List.of(1L, 2L)));
+    }
+
+    @Test
+    void cancelOrders_ShouldAbort_WhenQueuedOrdersCannotBeWritten() {
+        doThrow(new RuntimeException("Could not write 1 queued orders")).when(orderWriter).flush();
+
+        assertThrows(RuntimeException.class,
+                () -> orderService.cancelOrders("BTC", MassCancelRequestDTO.builder().customerId(123L).build()));
+
+        verify(orderRepository, never()).findAll(any(Specification.class));
+        verify(orderRepository, never()).cancelPendingOrders(any(), any());
     }
 
     @Test
@@ -120,6 +211,7 @@ class OrderServiceTest {
     @Test
     void getOrderById_ShouldReturnOrder_WhenExists() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
 
         Optional<OrderResponseDTO> result = orderService.getOrderById(1L);
 
@@ -146,33 +238,100 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
 
         Optional<OrderResponseDTO> result = orderService.updateOrder(1L, updateDTO);
 
         assertTrue(result.isPresent());
-        verify(orderRepository).save(testOrder);
+        assertEquals(20L, result.get().getSize());
+        verify(customerLocks).lockUntilCompletion(123L);
+        verify(assetService).updateAssetForAmend(testOrder, 20L);
+        verify(orderWriter).save(testOrder);
+        verify(commandJournal).orderChanged(JournalRecordType.ORDER_AMENDED, testOrder);
+    }
+
+    @Test
+    void updateOrder_ShouldReserveBuyCashAtNewSizeAndLimit() {
+        testOrder.setOrderSide(OrderSide.BUY);
+        OrderUpdateDTO updateDTO = OrderUpdateDTO.builder()
+                .price(new BigDecimal("50000.005"))
+                .build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrder(1L, updateDTO));
+
+        updateDTO.setPrice(new BigDecimal("50000.01"));
+        orderService.updateOrder(1L, updateDTO);
+
+        verify(assetService).updateAssetForAmend(testOrder, 50_000_010L);
+        assertEquals(new BigDecimal("50000.01"), testOrder.getPrice());
+    }
+
+    @Test
+    void updateOrder_ShouldLeaveOrderUnchanged_WhenAssetInsufficient() {
+        OrderUpdateDTO updateDTO = OrderUpdateDTO.builder()
+                .size(200L)
+                .build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
+        doThrow(new InsufficientAssetException("Insufficient asset for the amended order"))
+                .when(assetService).updateAssetForAmend(testOrder, 200L);
+
+        assertThrows(InsufficientAssetException.class, () -> orderService.updateOrder(1L, updateDTO));
+
+        assertEquals(10L, testOrder.getSize());
+        verify(orderWriter, never()).save(any());
+        verify(orderBookService, never()).sync(any());
+    }
+
+    @Test
+    void updateOrder_ShouldRejectOrderThatIsNoLongerPending() {
+        testOrder.setStatus(OrderStatus.MATCHED);
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
+
+        assertThrows(RuntimeException.class,
+                () -> orderService.updateOrder(1L, OrderUpdateDTO.builder().size(5L).build()));
+
+        verify(assetService, never()).updateAssetForAmend(any(), anyLong());
+        verify(orderWriter, never()).save(any());
     }
 
     @Test
     void deleteOrder_ShouldReturnTrue_WhenOrderExistsAndPending() {
-        when(orderRepository.findOrderByIdAndCustomerId(1L, "123")).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findOrderByIdAndCustomerId(1L, 123L)).thenReturn(Optional.of(testOrder));
+        when(orderWriter.overlay(testOrder)).then(returnsFirstArg());
+        when(orderBookService.cancel(testOrder)).thenReturn(4L);
 
         boolean result = orderService.deleteOrder(1L, 123L);
 
         assertTrue(result);
         assertEquals(OrderStatus.CANCELED, testOrder.getStatus());
-        verify(orderRepository).save(testOrder);
+        verify(orderWriter).save(testOrder);
+        verify(assetService).releaseReservation(testOrder);
+        verify(eventPublisher).publishEvent(new OrdersCanceledEvent(List.of(1L)));
     }
 
     @Test
     void deleteOrder_ShouldReturnFalse_WhenOrderNotExists() {
-        when(orderRepository.findOrderByIdAndCustomerId(999L, "123")).thenReturn(Optional.empty());
+        when(orderRepository.findOrderByIdAndCustomerId(999L, 123L)).thenReturn(Optional.empty());
 
         boolean result = orderService.deleteOrder(999L, 123L);
 
         assertFalse(result);
-        verify(orderRepository, never()).save(any());
+        verify(orderWriter, never()).save(any());
+    }
+
+    private OrderRequestDTO sellRequest(long size) {
+        return OrderRequestDTO.builder()
+                .assetName("BTC")
+                .orderSide(OrderSide.SELL)
+                .size(size)
+                .price(BigDecimal.valueOf(50000))
+                .build();
     }
-} 
\ No newline at end of file
+}
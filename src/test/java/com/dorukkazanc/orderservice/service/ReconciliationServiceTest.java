@@ -0,0 +1,124 @@
+package com.dorukkazanc.orderservice.service;
+
+import com.dorukkazanc.orderservice.config.EngineProperties;
+import com.dorukkazanc.orderservice.dto.BalanceDiscrepancyDTO;
+import com.dorukkazanc.orderservice.entity.Order;
+import com.dorukkazanc.orderservice.enums.OrderSide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OrderWriter orderWriter;
+
+    @Spy
+    private EngineProperties engineProperties = new EngineProperties();
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    private Order buyOrder;
+    private Order sellOrder;
+
+    @BeforeEach
+    void setUp() {
+        buyOrder = Order.builder()
+                .id(1L)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(3L)
+                .price(new BigDecimal("150.25"))
+                .build();
+        sellOrder = Order.builder()
+                .id(2L)
+                .customerId(2L)
+                .assetName("MSFT")
+                .orderSide(OrderSide.SELL)
+                .size(4L)
+                .price(new BigDecimal("300.00"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.close();
+    }
+
+    @Test
+    void check_ShouldAcceptBalancesHoldingExactlyWhatOrdersReserve() {
+        stubReservations();
+
+        ReconciliationService.ChunkResult result = reconciliationService.check(List.of(
+                new ReconciliationService.AssetRow(2L, 2L, "TRY", 50000L, 49549L),
+                new ReconciliationService.AssetRow(7L, 2L, "MSFT", 15L, 11L),
+                new ReconciliationService.AssetRow(4L, 2L, "AAPL", 10L, 10L)), List.of(buyOrder, sellOrder));
+
+        assertTrue(result.discrepancies().isEmpty());
+        assertEquals(1, result.customers());
+        assertEquals(3, result.balances());
+        assertEquals(2, result.orders());
+    }
+
+    @Test
+    void check_ShouldReportBalanceHoldingMoreThanOrdersReserve() {
+        stubReservations();
+
+        ReconciliationService.ChunkResult result = reconciliationService.check(List.of(
+                new ReconciliationService.AssetRow(2L, 2L, "TRY", 50000L, 49549L),
+                new ReconciliationService.AssetRow(7L, 2L, "MSFT", 15L, 9L)), List.of(buyOrder, sellOrder));
+
+        assertEquals(1, result.discrepancies().size());
+        BalanceDiscrepancyDTO discrepancy = result.discrepancies().get(0);
+        assertEquals("MSFT", discrepancy.getAssetName());
+        assertEquals(6L, discrepancy.getHeldSize());
+        assertEquals(4L, discrepancy.getReservedSize());
+        assertEquals(1, discrepancy.getPendingOrders());
+    }
+
+    @Test
+    void check_ShouldReportReservationWithoutBalanceRow() {
+        stubReservations();
+
+        ReconciliationService.ChunkResult result = reconciliationService.check(List.of(
+                new ReconciliationService.AssetRow(2L, 2L, "TRY", 50000L, 49549L)), List.of(buyOrder, sellOrder));
+
+        assertEquals(1, result.discrepancies().size());
+        BalanceDiscrepancyDTO discrepancy = result.discrepancies().get(0);
+        assertEquals("MSFT", discrepancy.getAssetName());
+        assertNull(discrepancy.getAssetId());
+        assertEquals(4L, discrepancy.getReservedSize());
+    }
+
+    private void stubReservations() {
+        when(ledgerService.reservedAssetName(buyOrder)).thenReturn("TRY");
+        when(ledgerService.reservedAssetName(sellOrder)).thenReturn("MSFT");
+        when(ledgerService.reservationFor(buyOrder, 3L)).thenReturn(451L);
+        when(ledgerService.reservationFor(sellOrder, 4L)).thenReturn(4L);
+    }
+}